@@ -3,6 +3,7 @@ package campuspaths;
 import campuspaths.utils.CORSFilter;
 import com.google.gson.Gson;
 import pathfinder.ModelConnector;
+import pathfinder.RoutingEngine;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 import spark.Request;
@@ -38,7 +39,9 @@ public class SparkServer {
           Spark.halt(400, "must have start and end");
         }
 
-        Path<Point> path = connector.findShortestPath(startBuilding, destBuilding);
+        // Routes over the contraction hierarchy, which the connector loaded from its file at startup.
+        Path<Point> path = connector.findShortestPath(startBuilding, destBuilding,
+                RoutingEngine.CONTRACTION_HIERARCHY);
         // Let's get a Gson object so we can convert our Path to a JSON String
         // before we send it back.
         // Gson is Google's library for dealing with JSON. It'll take any Java Object
@@ -0,0 +1,472 @@
+package graph;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * <b>CompactGraph</b> is an immutable, read-only representation of a DirectedGraph stored in
+ * compressed sparse row (CSR) form. Every node is assigned a dense int id in [0, nodeCount()).
+ * The out-bound edges of node id are grouped by dest node into entries, stored contiguously as the
+ * entry indices [firstEdge(id), endEdge(id)), so parallel edges between the same two nodes share
+ * one entry. Each entry holds the id of its dest node and the sorted labels of its edges, which
+ * are the label indices [firstLabel(entry), endLabel(entry)).
+ *
+ * <p>A CompactGraph is built once from an existing DirectedGraph and never changes afterwards,
+ * so it costs a few ints per edge instead of a DirectedLabeledEdge object and a hash set entry,
+ * and traversing the children of a node walks a contiguous slice of an array. A search that only
+ * needs the least label between two nodes expands each neighbor once, however many edges lead
+ * to it, and reads that label with label(entry).
+ *
+ * <p>Nodes and labels are interned once, when the graph is built, so each label is stored as an
+ * int id as well and a search never hashes or compares a node or label. Label ids are given in
+ * ascending order of the labels. A graph built by sorted(graph) gives node ids in ascending order
+ * of the nodes too, and stores the entries of each node in ascending order of dest node, so
+ * comparing ids is enough to visit nodes and edges in order.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
+ * @spec.specfield <br>order: comparator. The order the entries of each node are stored in, by the
+ * first edge of each entry in that order, or null if they are stored in no particular order.
+ * @spec.specfield <br>sorted: boolean. Whether node ids follow the order of the nodes and the
+ * entries of each node are stored in ascending order of dest node.
+ *
+ */
+
+public final class CompactGraph<E, T extends Comparable<T>> {
+
+    private final Interner<E> nodes;
+    private final Interner<T> labelTable;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] labelOffsets;
+    private final int[] labels;
+    private final Comparator<? super DirectedLabeledEdge<E, T>> order;
+    private final boolean sorted;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // nodes.valueOf(i) is the node with id i, and labelTable.valueOf(l) is the label with id l.
+    // The out-bound edges of the node with id i are, for each entry k with
+    // offsets[i] <= k < offsets[i + 1] and each j with labelOffsets[k] <= j < labelOffsets[k + 1],
+    // the edge (nodes.valueOf(i), nodes.valueOf(targets[k]), labelTable.valueOf(labels[j])).
+    // order is the comparator the entries of each node were sorted with, by the first edge of each
+    // entry in that order, or null if they are unsorted.
+    // sorted is true if node ids follow the order of the nodes and each row is sorted by targets[k].
+
+    // RepInvariant:
+    // nodes != null && labelTable != null && offsets != null && targets != null &&
+    // labelOffsets != null && labels != null &&
+    // offsets.length == nodes.size() + 1 && labelOffsets.length == targets.length + 1 &&
+    // offsets[0] == 0 && offsets[nodes.size()] == targets.length &&
+    // labelOffsets[0] == 0 && labelOffsets[targets.length] == labels.length &&
+    // offsets is non-decreasing && labelOffsets is strictly increasing &&
+    // for each k, 0 <= targets[k] < nodes.size() && no two entries of a row have the same target &&
+    // for each j, 0 <= labels[j] < labelTable.size() && the labels of each entry are strictly increasing &&
+    // for each l1 < l2, labelTable.valueOf(l1).compareTo(labelTable.valueOf(l2)) < 0 &&
+    // if sorted, the targets of each row are strictly increasing
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (nodes != null && labelTable != null && offsets != null && targets != null);
+            assert (labelOffsets != null && labels != null);
+            assert (offsets.length == nodes.size() + 1 && labelOffsets.length == targets.length + 1);
+            assert (offsets[0] == 0 && offsets[nodes.size()] == targets.length);
+            assert (labelOffsets[0] == 0 && labelOffsets[targets.length] == labels.length);
+            for (int i = 0; i < nodes.size(); i++) {
+                assert (offsets[i] <= offsets[i + 1]);
+                Set<Integer> seen = new HashSet<>();
+                for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                    assert (0 <= targets[k] && targets[k] < nodes.size());
+                    assert (seen.add(targets[k]));
+                    assert (!sorted || k == offsets[i] || targets[k - 1] < targets[k]);
+                }
+            }
+            for (int k = 0; k < targets.length; k++) {
+                assert (labelOffsets[k] < labelOffsets[k + 1]);
+                for (int j = labelOffsets[k]; j < labelOffsets[k + 1]; j++) {
+                    assert (0 <= labels[j] && labels[j] < labelTable.size());
+                    assert (j == labelOffsets[k] || labels[j - 1] < labels[j]);
+                }
+            }
+            for (int l = 1; l < labelTable.size(); l++) {
+                assert (labelTable.valueOf(l - 1).compareTo(labelTable.valueOf(l)) < 0);
+            }
+        }
+    }
+
+    /**Creates a new CompactGraph holding the same nodes and edges as graph, with the entries of
+     * each node stored in no particular order.
+     * @param graph the graph to copy into compact form
+     * @throws IllegalArgumentException if graph = null
+     * @spec.effects constructs a new CompactGraph with this.nodes = graph.nodes, this.edges =
+     * graph.edges and this.order = null
+     */
+    public CompactGraph(DirectedGraph<E, T> graph) {
+        this(graph, null);
+    }
+
+    /**Creates a new CompactGraph holding the same nodes and edges as graph, with the entries of
+     * each node sorted by order applied to the first edge of each entry in that order.
+     * @param graph the graph to copy into compact form
+     * @param order the order the entries of each node are stored in, or null for no particular order
+     * @throws IllegalArgumentException if graph = null
+     * @spec.effects constructs a new CompactGraph with this.nodes = graph.nodes, this.edges =
+     * graph.edges and this.order = order
+     */
+    public CompactGraph(DirectedGraph<E, T> graph, Comparator<? super DirectedLabeledEdge<E, T>> order) {
+        this(graph, internNodes(graph), order, false);
+    }
+
+    /**Creates a new CompactGraph holding the same nodes and edges as graph, with node ids given in
+     * ascending order of the nodes and the entries of each node sorted by dest node.
+     * @param graph the graph to copy into compact form
+     * @throws IllegalArgumentException if graph = null
+     * @return a new CompactGraph with this.nodes = graph.nodes, this.edges = graph.edges,
+     * this.order = null and this.sorted = true
+     */
+    public static <E extends Comparable<? super E>, T extends Comparable<T>> CompactGraph<E, T> sorted(
+            DirectedGraph<E, T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Cannot compact a null graph.");
+        }
+        return new CompactGraph<>(graph, Interner.sorted(graph.listNodes()), null, true);
+    }
+
+    /**Creates a new sorted CompactGraph from the arrays of another one, such as a graph saved to a
+     * file and read back, without copying them.
+     * @param nodes the nodes, in ascending order, so that the node with id i is nodes.get(i)
+     * @param labels the labels, in ascending order, so that the label with id l is labels.get(l)
+     * @param offsets the index of the first entry of each node, followed by the number of entries
+     * @param targets the id of the dest node of each entry
+     * @param labelOffsets the index of the first label of each entry, followed by the number of edges
+     * @param labelIds the id of the label of each edge, by entry
+     * @throws IllegalArgumentException if any argument is null, or the arrays do not describe a
+     * sorted CompactGraph over nodes and labels
+     * @return a new CompactGraph with the nodes and edges the arrays describe, this.order = null and
+     * this.sorted = true
+     */
+    public static <E extends Comparable<? super E>, T extends Comparable<T>> CompactGraph<E, T> sorted(
+            List<E> nodes, List<T> labels, int[] offsets, int[] targets, int[] labelOffsets, int[] labelIds) {
+        if (nodes == null || labels == null || offsets == null || targets == null || labelOffsets == null
+                || labelIds == null) {
+            throw new IllegalArgumentException("Cannot build a graph from null arrays.");
+        }
+        Interner<E> nodeTable = internAscending(nodes);
+        Interner<T> labelTable = internAscending(labels);
+        if (offsets.length != nodes.size() + 1 || offsets[0] != 0 || offsets[nodes.size()] != targets.length
+                || labelOffsets.length != targets.length + 1 || labelOffsets[0] != 0
+                || labelOffsets[targets.length] != labelIds.length) {
+            throw new IllegalArgumentException("Array sizes do not match.");
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            if (offsets[i] > offsets[i + 1]) {
+                throw new IllegalArgumentException("Offsets must be non-decreasing.");
+            }
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                if (targets[k] < 0 || targets[k] >= nodes.size() || (k > offsets[i] && targets[k - 1] >= targets[k])) {
+                    throw new IllegalArgumentException("Targets of each node must be ascending node ids.");
+                }
+            }
+        }
+        for (int k = 0; k < targets.length; k++) {
+            if (labelOffsets[k] >= labelOffsets[k + 1]) {
+                throw new IllegalArgumentException("Each entry must have a label.");
+            }
+            for (int j = labelOffsets[k]; j < labelOffsets[k + 1]; j++) {
+                if (labelIds[j] < 0 || labelIds[j] >= labels.size()
+                        || (j > labelOffsets[k] && labelIds[j - 1] >= labelIds[j])) {
+                    throw new IllegalArgumentException("Labels of each entry must be ascending label ids.");
+                }
+            }
+        }
+        return new CompactGraph<>(nodeTable, labelTable, offsets, targets, labelOffsets, labelIds);
+    }
+
+    //builds a sorted graph directly from its arrays.
+    private CompactGraph(Interner<E> nodes, Interner<T> labelTable, int[] offsets, int[] targets,
+                         int[] labelOffsets, int[] labels) {
+        this.nodes = nodes;
+        this.labelTable = labelTable;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labelOffsets = labelOffsets;
+        this.labels = labels;
+        this.order = null;
+        this.sorted = true;
+        checkRep();
+    }
+
+    //interns values, which must be strictly ascending, so that each one's id is its index.
+    private static <V extends Comparable<? super V>> Interner<V> internAscending(List<V> values) {
+        Interner<V> interner = new Interner<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null || (i > 0 && values.get(i - 1).compareTo(values.get(i)) >= 0)) {
+                throw new IllegalArgumentException("Values must be non-null and strictly ascending.");
+            }
+            interner.intern(values.get(i));
+        }
+        return interner;
+    }
+
+    //builds the graph with the given node ids. if sorted, the entries of each row are sorted by dest
+    // id, otherwise they are sorted by order if that is not null, and kept in the order graph lists
+    // them if it is.
+    private CompactGraph(DirectedGraph<E, T> graph, Interner<E> nodes,
+                         Comparator<? super DirectedLabeledEdge<E, T>> order, boolean sorted) {
+        this.nodes = nodes;
+        this.order = order;
+        this.sorted = sorted;
+        int nodeCount = nodes.size();
+        //first pass counts the edges and collects the labels so their ids can be given in order.
+        Set<T> allLabels = new HashSet<>();
+        int edgeCount = 0;
+        int maxDegree = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            Set<DirectedLabeledEdge<E, T>> children = graph.listChildren(node(i));
+            edgeCount += children.size();
+            maxDegree = Math.max(maxDegree, children.size());
+            for (DirectedLabeledEdge<E, T> edge : children) {
+                allLabels.add(edge.getLabel());
+            }
+        }
+        labelTable = Interner.sorted(allLabels);
+        offsets = new int[nodeCount + 1];
+        //there are at most as many entries as edges, so the entry arrays are trimmed at the end.
+        int[] entryTargets = new int[edgeCount];
+        int[] entryLabels = new int[edgeCount + 1];
+        labels = new int[edgeCount];
+        //each edge of a row is keyed by (rank of its entry, label id), so sorting the keys groups
+        // parallel edges into entries in rank order with their labels ascending. the rank of an entry
+        // is its dest id in a sorted graph, and otherwise the position of the first edge to its dest.
+        long[] keys = new long[maxDegree];
+        int[] rankOf = new int[nodeCount];
+        int[] destOf = new int[maxDegree];
+        Arrays.fill(rankOf, -1);
+        int entry = 0;
+        int label = 0;
+        //second pass copies each node's edges into its slice of the entry and label arrays.
+        for (int i = 0; i < nodeCount; i++) {
+            List<DirectedLabeledEdge<E, T>> children = new ArrayList<>(graph.listChildren(node(i)));
+            if (order != null) {
+                children.sort(order);
+            }
+            int ranks = 0;
+            for (int k = 0; k < children.size(); k++) {
+                int dest = nodes.idOf(children.get(k).getDest());
+                if (!sorted && rankOf[dest] == -1) {
+                    rankOf[dest] = ranks;
+                    destOf[ranks++] = dest;
+                }
+                int rank = sorted ? dest : rankOf[dest];
+                keys[k] = ((long) rank << 32) | labelTable.idOf(children.get(k).getLabel());
+            }
+            Arrays.sort(keys, 0, children.size());
+            for (int k = 0; k < children.size(); k++) {
+                int rank = (int) (keys[k] >>> 32);
+                if (k == 0 || rank != (int) (keys[k - 1] >>> 32)) {
+                    entryTargets[entry] = sorted ? rank : destOf[rank];
+                    entryLabels[entry++] = label;
+                }
+                labels[label++] = (int) keys[k];
+            }
+            for (int r = 0; r < ranks; r++) {
+                rankOf[destOf[r]] = -1;
+            }
+            offsets[i + 1] = entry;
+        }
+        entryLabels[entry] = label;
+        targets = Arrays.copyOf(entryTargets, entry);
+        labelOffsets = Arrays.copyOf(entryLabels, entry + 1);
+        checkRep();
+    }
+
+    //gives the nodes of graph ids in the order graph lists them.
+    private static <E, T extends Comparable<T>> Interner<E> internNodes(DirectedGraph<E, T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Cannot compact a null graph.");
+        }
+        Interner<E> nodes = new Interner<>(graph.listNodes().size());
+        for (E node : graph.listNodes()) {
+            nodes.intern(node);
+        }
+        return nodes;
+    }
+
+    /**Returns the number of nodes in this.nodes.
+     * @return |this.nodes|
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**Returns the number of edges in this.edges.
+     * @return |this.edges|
+     */
+    public int edgeCount() {
+        return labels.length;
+    }
+
+    /**Returns the number of entries, that is of distinct (src, dest) pairs joined by an edge in
+     * this.edges.
+     * @return the number of distinct pairs (e.src, e.dest) over the edges e in this.edges
+     */
+    public int entryCount() {
+        return targets.length;
+    }
+
+    /**Returns the order the entries of each node are stored in.
+     * @return this.order, or null if the entries of each node are stored in no particular order
+     */
+    public Comparator<? super DirectedLabeledEdge<E, T>> order() {
+        return order;
+    }
+
+    /**Returns whether node ids follow the order of the nodes and the entries of each node are
+     * stored in ascending order of dest node.
+     * @return this.sorted
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**Returns the number of distinct labels on the edges in this.edges.
+     * @return the number of distinct labels in this.edges
+     */
+    public int labelCount() {
+        return labelTable.size();
+    }
+
+    /**Returns true if the specified node, n, is present in this.nodes.
+     * @param n the node to check if its present in this.nodes
+     * @return true if this.nodes contains n
+     */
+    public boolean containsNode(E n) {
+        return nodes.idOf(n) != -1;
+    }
+
+    /**Returns the id of the specified node, n.
+     * @param n the node whose id is to be returned
+     * @return the id of n, or -1 if n is not present in this.nodes
+     */
+    public int idOf(E n) {
+        return nodes.idOf(n);
+    }
+
+    /**Returns the node with the specified id.
+     * @param id the id of the node to be returned
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return the node in this.nodes whose id is id
+     */
+    public E node(int id) {
+        return nodes.valueOf(id);
+    }
+
+    /**Returns the index of the first entry of the node with the specified id.
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return the index of the first entry of the node with the specified id
+     */
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**Returns one past the index of the last entry of the node with the specified id, so the
+     * entries of the node are the entry indices [firstEdge(id), endEdge(id)).
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return one past the index of the last entry of the node with the specified id
+     */
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**Returns the id of the dest node of the entry at the specified index.
+     * @param entry the index of the entry
+     * @spec.requires 0 &lt;= entry &lt; entryCount()
+     * @return the id of the dest node of the edges of the entry at the specified index
+     */
+    public int target(int entry) {
+        return targets[entry];
+    }
+
+    /**Returns the least label of the edges of the entry at the specified index.
+     * @param entry the index of the entry
+     * @spec.requires 0 &lt;= entry &lt; entryCount()
+     * @return the least label of the edges of the entry at the specified index
+     */
+    public T label(int entry) {
+        return labelTable.valueOf(labels[labelOffsets[entry]]);
+    }
+
+    /**Returns the id of the least label of the edges of the entry at the specified index. Label ids
+     * are given in ascending order of the labels, so comparing label ids compares labels.
+     * @param entry the index of the entry
+     * @spec.requires 0 &lt;= entry &lt; entryCount()
+     * @return the id of the least label of the entry at the specified index, in [0, labelCount())
+     */
+    public int labelId(int entry) {
+        return labels[labelOffsets[entry]];
+    }
+
+    /**Returns the index of the least label of the entry at the specified index.
+     * @param entry the index of the entry
+     * @spec.requires 0 &lt;= entry &lt; entryCount()
+     * @return the index of the least label of the entry at the specified index
+     */
+    public int firstLabel(int entry) {
+        return labelOffsets[entry];
+    }
+
+    /**Returns one past the index of the greatest label of the entry at the specified index, so the
+     * labels of the entry, in ascending order, are the label indices [firstLabel(entry), endLabel(entry)).
+     * @param entry the index of the entry
+     * @spec.requires 0 &lt;= entry &lt; entryCount()
+     * @return one past the index of the greatest label of the entry at the specified index
+     */
+    public int endLabel(int entry) {
+        return labelOffsets[entry + 1];
+    }
+
+    /**Returns the label at the specified label index.
+     * @param index the label index
+     * @spec.requires 0 &lt;= index &lt; edgeCount()
+     * @return the label at the specified label index
+     */
+    public T labelAt(int index) {
+        return labelTable.valueOf(labels[index]);
+    }
+
+    /**Returns the id of the label at the specified label index.
+     * @param index the label index
+     * @spec.requires 0 &lt;= index &lt; edgeCount()
+     * @return the id of the label at the specified label index, in [0, labelCount())
+     */
+    public int labelIdAt(int index) {
+        return labels[index];
+    }
+
+    /**Returns the label with the specified id.
+     * @param labelId the id of the label
+     * @spec.requires 0 &lt;= labelId &lt; labelCount()
+     * @return the label whose id is labelId
+     */
+    public T labelOf(int labelId) {
+        return labelTable.valueOf(labelId);
+    }
+
+    /**Returns the edge with the least label of the entry at the specified index as a
+     * DirectedLabeledEdge.
+     * @param src the id of the src node of the entry
+     * @param entry the index of the entry
+     * @spec.requires firstEdge(src) &lt;= entry &lt; endEdge(src)
+     * @return the edge with the least label of the entry at the specified index, out-bound from the
+     * node with id src
+     */
+    public DirectedLabeledEdge<E, T> edge(int src, int entry) {
+        return new DirectedLabeledEdge<>(node(src), node(targets[entry]), label(entry));
+    }
+}
@@ -0,0 +1,306 @@
+package graph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <b>ConcurrentDirectedGraph</b> is a mutable, thread-safe representation of a graph that is made
+ * up from a set of nodes connected by directed edges. It supports the same operations as
+ * DirectedGraph, but any number of threads may query and modify it at the same time without
+ * external locking.
+ *
+ * <p>Queries never lock. The nodes and the in-bound and out-bound edges of each node are held in
+ * ConcurrentHashMaps, so containsNode, containsEdge, listNodes, listChildren and listParents read
+ * without blocking and the sets they return can be iterated while other threads modify the graph.
+ * Those sets are weakly consistent: an iteration sees every edge that was present for its whole
+ * duration, and may or may not see edges added or removed while it runs. A long search that must
+ * see one consistent graph should run over a DirectedGraph snapshot instead.
+ *
+ * <p>Modifications only lock the map bins of the nodes they touch, so writers of unrelated parts of
+ * the graph do not block each other. Each modification is atomic: an edge can never be added to
+ * a node that is concurrently being removed.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
+ *
+ */
+
+public class ConcurrentDirectedGraph<E, T extends Comparable<T>> implements MutableGraph<E, T> {
+
+    private final ConcurrentHashMap<E, Set<DirectedLabeledEdge<E, T>>> children;
+    private final ConcurrentHashMap<E, Set<DirectedLabeledEdge<E, T>>> parents;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // The keys of children are all the nodes in the graph.
+    // children associates each node with a set of its outgoing edges, and parents associates each
+    // node with a set of its ingoing edges.
+
+    // RepInvariant (whenever no modification is in progress):
+    // children != null && parents != null && children.keySet().equals(parents.keySet()) &&
+    // for each node, each edge in children.get(node) has edge.getSrc().equals(node) and is in
+    // parents.get(edge.getDest()), and each edge in parents.get(node) has edge.getDest().equals(node)
+    // and is in children.get(edge.getSrc()).
+
+    // Locking:
+    // Modifications run inside ConcurrentHashMap.compute on the bin of one node of parents, and
+    // may then lock one bin of children, never the other way around, so they cannot deadlock.
+    // A node is added and removed inside a compute on its own bin of parents, which puts or removes
+    // its entry of children too, so the two maps always hold the same nodes. An edge is only added
+    // or removed inside a compute on parents' bin for its dest node and children's bin for its src
+    // node, and it is in the graph iff it is in both of its sets.
+    // Once removeNode has removed a node, no new edge to or from it can be added, and every edge
+    // that was added before is in the sets it removed and cleans out of the other nodes' sets. A node
+    // of the same name may be added back and given the same edges while that cleanup runs, so the
+    // cleanup only removes an edge from the set it locks if the node's current set does not hold
+    // it too; the current set cannot gain or lose that edge while the bin is locked.
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (children != null && parents != null);
+            for (E node: children.keySet()) {
+                assert (node != null);
+                for (DirectedLabeledEdge<E, T> edge: children.get(node)) {
+                    assert (edge != null && edge.getSrc().equals(node));
+                }
+            }
+            for (E node: parents.keySet()) {
+                assert (node != null);
+                for (DirectedLabeledEdge<E, T> edge: parents.get(node)) {
+                    assert (edge != null && edge.getDest().equals(node));
+                }
+            }
+        }
+    }
+
+    /**Creates a new ConcurrentDirectedGraph.
+     *@spec.effects constructs a new empty ConcurrentDirectedGraph
+     */
+    public ConcurrentDirectedGraph() {
+        children = new ConcurrentHashMap<>();
+        parents = new ConcurrentHashMap<>();
+        checkRep();
+    }
+
+    /**Creates a new ConcurrentDirectedGraph holding the same nodes and edges as graph.
+     * @param graph the graph to copy
+     * @throws IllegalArgumentException if graph = null
+     * @spec.effects constructs a new ConcurrentDirectedGraph with this.nodes = graph.nodes and
+     * this.edges = graph.edges
+     */
+    public ConcurrentDirectedGraph(Graph<E, T> graph) {
+        this();
+        if (graph == null) {
+            throw new IllegalArgumentException("Cannot copy a null graph.");
+        }
+        for (E node: graph.listNodes()) {
+            addNode(node);
+        }
+        for (E node: graph.listNodes()) {
+            for (DirectedLabeledEdge<E, T> edge: graph.listChildren(node)) {
+                addEdge(edge);
+            }
+        }
+    }
+
+    /**Returns true if the specified node, n, is present in this.nodes.
+     * @param n the node to check if its present in this.nodes
+     * @return true if this.nodes contains n
+     */
+    public boolean containsNode(E n) {
+        return n != null && children.containsKey(n);
+    }
+
+    /**Returns true if the specified edge, e, is present in this.edges.
+     * @param e the edge to check if its present in this.edges
+     * @return true if this.edges contains e
+     */
+    public boolean containsEdge(DirectedLabeledEdge<E, T> e) {
+        if (e == null) {
+            return false;
+        }
+        Set<DirectedLabeledEdge<E, T>> edges = children.get(e.getSrc());
+        return edges != null && edges.contains(e);
+    }
+
+    /**Adds the specified node, n, to this.nodes if it is not already present.
+     * @param n the node to be added to this.nodes
+     * @throws IllegalArgumentException if n = null
+     * @spec.modifies this.
+     * @spec.effects adds n to this.nodes
+     * @return true if this.nodes did not already contain n
+     */
+    public boolean addNode(E n) {
+        if (n == null) {
+            throw new IllegalArgumentException("Cannot add a null node to the graph.");
+        }
+        boolean[] added = new boolean[1];
+        parents.computeIfAbsent(n, node -> {
+            children.put(node, ConcurrentHashMap.newKeySet());
+            added[0] = true;
+            return ConcurrentHashMap.newKeySet();
+        });
+        checkRep();
+        return added[0];
+    }
+
+    /**Adds the specified edge, e, to this.edges if it is not already present.
+     * @param e the edge to be added to this.edges.
+     * @throws IllegalArgumentException if e = null or the src or dest node of e is not in this.nodes
+     * @spec.modifies this
+     * @spec.effects adds e to this.edges
+     * @return true if this.edges did not already contain e
+     */
+    public boolean addEdge(DirectedLabeledEdge<E, T> e) {
+        if (e == null) {
+            throw new IllegalArgumentException("Cannot add a null edge to the graph.");
+        }
+        //found[0] is set if the src node exists, found[1] if e was added.
+        boolean[] found = new boolean[2];
+        parents.computeIfPresent(e.getDest(), (dest, edges) -> {
+            children.computeIfPresent(e.getSrc(), (src, out) -> {
+                found[0] = true;
+                //one set may still hold e from a removed node of the same name that is being cleaned
+                // up, so e is only present if both hold it.
+                found[1] = !(out.contains(e) && edges.contains(e));
+                out.add(e);
+                edges.add(e);
+                return out;
+            });
+            return edges;
+        });
+        if (!found[0]) {
+            throw new IllegalArgumentException("Both nodes need to exist in the graph.");
+        }
+        checkRep();
+        return found[1];
+    }
+
+    /**Removes the specified node, n, and all of its in-bound and out-bound edges from this.
+     * @param n the node to be removed from this.nodes
+     * @throws IllegalArgumentException if n = null or n is not in this.nodes
+     * @spec.modifies this
+     * @spec.effects removes n from this.nodes, and every edge to or from n from this.edges
+     * @return true if this.nodes contained n
+     */
+    public boolean removeNode(E n) {
+        if (n == null) {
+            throw new IllegalArgumentException("Cannot remove a null node from the graph.");
+        }
+        //removed[0] is the in-bound edge set of n and removed[1] its out-bound one, both taken out of
+        // the maps in one step so no addNode of n can run between them.
+        List<Set<DirectedLabeledEdge<E, T>>> removed = new ArrayList<>(2);
+        parents.computeIfPresent(n, (node, in) -> {
+            removed.add(in);
+            removed.add(children.remove(node));
+            return null;
+        });
+        if (removed.isEmpty()) {
+            throw new IllegalArgumentException("Cannot remove a node that doesn't exist in the graph.");
+        }
+        for (DirectedLabeledEdge<E, T> edge: removed.get(0)) {
+            children.computeIfPresent(edge.getSrc(), (src, edges) -> {
+                if (!holds(parents, n, edge)) {
+                    edges.remove(edge);
+                }
+                return edges;
+            });
+        }
+        for (DirectedLabeledEdge<E, T> edge: removed.get(1)) {
+            parents.computeIfPresent(edge.getDest(), (dest, edges) -> {
+                if (!holds(children, n, edge)) {
+                    edges.remove(edge);
+                }
+                return edges;
+            });
+        }
+        checkRep();
+        return true;
+    }
+
+    /**Removes the specified edge, e, from this.edges.
+     * @param e the edge to be removed from this.edges
+     * @throws IllegalArgumentException if e = null or e is not in this.edges
+     * @spec.modifies this
+     * @spec.effects removes e from this.edges
+     * @return true if this.edges contained e.
+     */
+    public boolean removeEdge(DirectedLabeledEdge<E, T> e) {
+        if (e == null) {
+            throw new IllegalArgumentException("Cannot remove a null edge from the graph.");
+        }
+        boolean[] removed = new boolean[1];
+        parents.computeIfPresent(e.getDest(), (dest, edges) -> {
+            children.computeIfPresent(e.getSrc(), (src, out) -> {
+                removed[0] = out.contains(e) && edges.contains(e);
+                out.remove(e);
+                edges.remove(e);
+                return out;
+            });
+            return edges;
+        });
+        if (!removed[0]) {
+            throw new IllegalArgumentException("Cannot remove an edge that doesn't exist.");
+        }
+        checkRep();
+        return true;
+    }
+
+    /**Returns a read-only, weakly consistent Set of nodes that are contained in this.nodes.
+     * @return a Set of nodes that are contained in this.nodes.
+     */
+    public Set<E> listNodes() {
+        return Collections.unmodifiableSet(children.keySet());
+    }
+
+    /**Returns a read-only, weakly consistent Set of the out-bound edges of parentNode that are
+     * contained in this.edges.
+     * @param parentNode the node whose associated out-bound edges are to be returned
+     * @throws IllegalArgumentException if parentNode = null or parentNode is not in this.nodes
+     * @return a Set of the out-bound edges of parentNode that are contained in this.edges.
+     */
+    public Set<DirectedLabeledEdge<E, T>> listChildren(E parentNode) {
+        return Collections.unmodifiableSet(edgesOf(children, parentNode));
+    }
+
+    /**Returns a read-only, weakly consistent Set of the in-bound edges of childNode that are
+     * contained in this.edges.
+     * @param childNode the node whose associated in-bound edges are to be returned
+     * @throws IllegalArgumentException if childNode = null or childNode is not in this.nodes
+     * @return a Set of the in-bound edges of childNode that are contained in this.edges.
+     */
+    public Set<DirectedLabeledEdge<E, T>> listParents(E childNode) {
+        return Collections.unmodifiableSet(edgesOf(parents, childNode));
+    }
+
+    /**Returns the order listChildren lists the out-bound edges of a node in.
+     * @return null, because the out-bound edges of a node are listed in no particular order
+     */
+    public Comparator<? super DirectedLabeledEdge<E, T>> childOrder() {
+        return null;
+    }
+
+    //returns true if node is in map and its edge set holds edge.
+    private boolean holds(ConcurrentHashMap<E, Set<DirectedLabeledEdge<E, T>>> map, E node,
+                          DirectedLabeledEdge<E, T> edge) {
+        Set<DirectedLabeledEdge<E, T>> edges = map.get(node);
+        return edges != null && edges.contains(edge);
+    }
+
+    //returns the edge set of node in map, throwing an IllegalArgumentException if there is none.
+    private Set<DirectedLabeledEdge<E, T>> edgesOf(ConcurrentHashMap<E, Set<DirectedLabeledEdge<E, T>>> map,
+                                                  E node) {
+        if (node == null) {
+            throw new IllegalArgumentException("Cannot list edges of a null node");
+        }
+        Set<DirectedLabeledEdge<E, T>> edges = map.get(node);
+        if (edges == null) {
+            throw new IllegalArgumentException(node + " does not exist in the graph");
+        }
+        return edges;
+    }
+}
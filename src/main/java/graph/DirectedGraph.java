@@ -1,9 +1,14 @@
 package graph;
 import java.util.Set;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * <b>DirectedGraph</b> is a mutable representation of a graph that is made up
@@ -13,25 +18,65 @@ import java.util.Collections;
  * distinct collection, of j directed edges.
  *
  *
+ * <p>A DirectedGraph can optionally keep an index of the in-bound edges of every node, which
+ * makes listParents and removeNode cost time proportional to the degree of the node instead of
+ * the size of the graph, at the cost of a second set entry for each edge.
+ *
+ * <p>A DirectedGraph can optionally keep the out-bound edges of every node sorted by a comparator,
+ * so that listChildren iterates them in that order and a search that needs a deterministic order
+ * doesn't have to sort them on every visit. Adding and looking up an edge then costs time
+ * logarithmic in the degree of its src node instead of constant time.
+ *
+ * <p>Large graphs should be loaded with a DirectedGraph.Builder, which adds batches of nodes and
+ * edges without checking each one against the graph and hands back the finished graph.
+ *
+ * <p>snapshot() returns an immutable view of the graph as it is at that moment. Snapshots share
+ * structure with the graph instead of copying it: after a snapshot, the graph copies its node map
+ * on the first modification, and copies the edge set of a node the first time that node's edges
+ * are modified, so a snapshot keeps seeing the old sets while the graph moves on.
+ *
+ * <p>A DirectedGraph is not thread-safe, except that snapshot() may be called by any thread while
+ * another thread modifies the graph. snapshot() and every modification hold the lock of the graph,
+ * so a snapshot is always taken between two modifications and is never changed by the next one.
+ * The snapshot can then be searched by any number of threads without locking.
+ *
  * @spec.specfield nodes: set. A set of all the nodes in the graph
  * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
  *
  */
 
 
-public class DirectedGraph<E ,T extends Comparable<T>> {
+public class DirectedGraph<E ,T extends Comparable<T>> implements MutableGraph<E, T> {
 
     private Map<E, Set<DirectedLabeledEdge<E,T>>> graph;
+    private Map<E, Set<DirectedLabeledEdge<E,T>>> parents;
+    //the order the out-bound edges of each node are kept in, or null if they are kept in a hash set.
+    private final Comparator<? super DirectedLabeledEdge<E,T>> childOrder;
+    //true if the maps above are shared with a snapshot and must be copied before being modified.
+    private boolean mapsShared;
+    //the edge sets created since the last snapshot, which are not shared with any snapshot, or null
+    // if no snapshot was ever taken and so every edge set belongs to this graph alone.
+    private Set<Set<DirectedLabeledEdge<E,T>>> owned;
+    //the snapshot of the current version of this graph, or null if it changed since the last one.
+    private GraphSnapshot<E, T> latest;
     private final static boolean CHECK_REP_ON = false;
 
     // Abstraction Function:
     // The String keys of graph are all the nodes in the graph.
     // graph associates each node, key, with a hashSet of its outgoing edges.
+    // If parents != null, parents associates each node with a hashSet of its ingoing edges.
+    // If childOrder != null, the sets in graph are TreeSets sorted by childOrder.
+    // Snapshots are not part of the abstract value: an edge set that is not in owned (when owned
+    // != null), and the maps themselves while mapsShared, may be referenced by a snapshot and are
+    // never modified in place again.
 
     // RepInvariant:
     // graph != null &&
     // each node in graph.keySet() != null && each edge in graph.values() != null &&
-    // for each node in graph.keySet(), for each edge in graph.get(node), edge.getSrc().equals(node).
+    // for each node in graph.keySet(), for each edge in graph.get(node), edge.getSrc().equals(node) &&
+    // if parents != null, parents.keySet().equals(graph.keySet()) and for each node,
+    // parents.get(node) is exactly the edges e in graph.values() with e.getDest().equals(node) &&
+    // if childOrder != null, each set in graph.values() is a SortedSet whose comparator is childOrder.
 
     /** Throws an exception if the representation invariant is violated. */
     private void checkRep() {
@@ -40,10 +85,26 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
             for (E node: graph.keySet()) {
                 //checks each node != null
                 assert (node != null);
+                if (childOrder != null) {
+                    assert (graph.get(node) instanceof SortedSet);
+                    assert (((SortedSet<?>) graph.get(node)).comparator() == childOrder);
+                }
                 for (DirectedLabeledEdge edge: graph.get(node)) {
                     //Only check each edge != null because checkRep in DirectedLabeledEdge tests
                     // for if any of the elements in edge are null.
                     assert(edge != null);
+                    if (parents != null) {
+                        assert (parents.get(edge.getDest()).contains(edge));
+                    }
+                }
+            }
+            if (parents != null) {
+                assert (parents.keySet().equals(graph.keySet()));
+                for (E node: parents.keySet()) {
+                    for (DirectedLabeledEdge<E, T> edge: parents.get(node)) {
+                        assert (edge.getDest().equals(node));
+                        assert (graph.get(edge.getSrc()).contains(edge));
+                    }
                 }
             }
         }
@@ -53,7 +114,44 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
      *@spec.effects constructs a new empty DirectedGraph
      */
     public DirectedGraph() {
+        this(false);
+    }
+
+    /**Creates a new DirectedGraph that keeps an index of the in-bound edges of every node if
+     * indexParents is true.
+     *@param indexParents true if the graph should index the in-bound edges of every node
+     *@spec.effects constructs a new empty DirectedGraph
+     */
+    public DirectedGraph(boolean indexParents) {
+        this(indexParents, null);
+    }
+
+    /**Creates a new DirectedGraph that keeps an index of the in-bound edges of every node if
+     * indexParents is true, and keeps the out-bound edges of every node sorted by childOrder if it
+     * is not null.
+     *@param indexParents true if the graph should index the in-bound edges of every node
+     *@param childOrder the order listChildren lists the out-bound edges of a node in, or null for no
+     *                  particular order
+     *@spec.requires childOrder, if not null, only returns 0 for two edges with the same src node if
+     * they are equal
+     *@spec.effects constructs a new empty DirectedGraph
+     */
+    public DirectedGraph(boolean indexParents, Comparator<? super DirectedLabeledEdge<E,T>> childOrder) {
         graph = new HashMap<>();
+        if (indexParents) {
+            parents = new HashMap<>();
+        }
+        this.childOrder = childOrder;
+        checkRep();
+    }
+
+    //creates a DirectedGraph over maps filled in by a Builder, which are not shared with anything else.
+    private DirectedGraph(Map<E, Set<DirectedLabeledEdge<E,T>>> graph,
+                          Map<E, Set<DirectedLabeledEdge<E,T>>> parents,
+                          Comparator<? super DirectedLabeledEdge<E,T>> childOrder) {
+        this.graph = graph;
+        this.parents = parents;
+        this.childOrder = childOrder;
         checkRep();
     }
 
@@ -94,14 +192,18 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
      * @spec.effects adds n to this.nodes
      * @return true if this.nodes did not already contain n
      */
-    public boolean addNode(E n) {
+    public synchronized boolean addNode(E n) {
         checkRep();
         if (n == null){
             throw new IllegalArgumentException("Cannot add a null node to the graph.");
         } else if (this.containsNode(n)) {
             return false;
         } else{
-            graph.put(n, new HashSet<DirectedLabeledEdge<E, T>>());
+            prepareWrite();
+            graph.put(n, newEdgeSet(childOrder));
+            if (parents != null) {
+                parents.put(n, newEdgeSet(null));
+            }
             checkRep();
             return true;
         }
@@ -116,7 +218,7 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
      * @spec.effects adds e to this.edges
      * @return true if this.edges did not already contain e
      */
-    public boolean addEdge(DirectedLabeledEdge<E, T> e) {
+    public synchronized boolean addEdge(DirectedLabeledEdge<E, T> e) {
         checkRep();
         if (e == null) {
             throw new IllegalArgumentException("Cannot add a null edge to the graph.");
@@ -125,7 +227,11 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
         } else if (this.containsEdge(e)) {
             return false;
         } else {
-            graph.get(e.getSrc()).add(e);
+            prepareWrite();
+            writableEdges(graph, e.getSrc()).add(e);
+            if (parents != null) {
+                writableEdges(parents, e.getDest()).add(e);
+            }
             checkRep();
             return true;
         }
@@ -138,21 +244,37 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
      * @spec.effects removes n from this.nodes
      * @return true if this.nodes contained n
      */
-    public boolean removeNode(E n) {
+    public synchronized boolean removeNode(E n) {
         checkRep();
         if (n == null) {
             throw new IllegalArgumentException("Cannot remove a null node from the graph.");
         } else if (!graph.containsKey(n)) {
             throw new IllegalArgumentException("Cannot remove a node that doesn't exist in the graph.");
         } else {
+            prepareWrite();
             //removes n's out-bound edges
-            graph.remove(n);
-            //removes all of n's ingoing edges. Could also keep a second map to map nodes to their
-            //in going edges for efficiency, but for now I don't think the client will be removing nodes a lot.
-            for (E node: graph.keySet()) {
-                for (DirectedLabeledEdge edge: graph.get(node)) {
-                    if (edge.getDest().equals(n)) {
-                        graph.get(node).remove(edge);
+            Set<DirectedLabeledEdge<E, T>> children = graph.remove(n);
+            if (parents != null) {
+                //the index knows exactly which edges point at n and which index entries n's
+                // out-bound edges left behind, so only n's neighbors are touched.
+                for (DirectedLabeledEdge<E, T> edge: parents.remove(n)) {
+                    if (!edge.getSrc().equals(n)) {
+                        writableEdges(graph, edge.getSrc()).remove(edge);
+                    }
+                }
+                for (DirectedLabeledEdge<E, T> edge: children) {
+                    if (!edge.getDest().equals(n)) {
+                        writableEdges(parents, edge.getDest()).remove(edge);
+                    }
+                }
+            } else {
+                //removes all of n's ingoing edges by scanning every node's out-bound edges.
+                for (E node: graph.keySet()) {
+                    for (DirectedLabeledEdge<E, T> edge: graph.get(node)) {
+                        if (edge.getDest().equals(n)) {
+                            writableEdges(graph, node).removeIf(ingoing -> ingoing.getDest().equals(n));
+                            break;
+                        }
                     }
                 }
             }
@@ -169,15 +291,19 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
      * @return true if this.edges contained e.
      */
 
-    public boolean removeEdge(DirectedLabeledEdge<E, T> e) {
+    public synchronized boolean removeEdge(DirectedLabeledEdge<E, T> e) {
         checkRep();
         if (e == null) {
             throw new IllegalArgumentException("Cannot remove a null edge from the graph.");
         } else if (!graph.get(e.getSrc()).contains(e)) {
             throw new IllegalArgumentException("Cannot remove an edge that doesn't exist.");
         } else {
+            prepareWrite();
+            writableEdges(graph, e.getSrc()).remove(e);
+            if (parents != null) {
+                writableEdges(parents, e.getDest()).remove(e);
+            }
             checkRep();
-            graph.get(e.getSrc()).remove(e);
             return true;
         }
     }
@@ -192,7 +318,9 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
         return Collections.unmodifiableSet(graph.keySet());
     }
 
-    /**Returns a Set of the out-bound edges of parentNode that are contained in this.edges.
+    /**Returns a Set of the out-bound edges of parentNode that are contained in this.edges. The set
+     * is a read-only view that changes as this graph changes; use snapshot() for a view that
+     * doesn't. It iterates in childOrder() if that is not null.
      * @param parentNode the node whose associated out-bound edges are to be returned
      * @spec.requires parentNode is present in this.nodes.
      * @throws IllegalArgumentException if parentNode = null
@@ -209,4 +337,279 @@ public class DirectedGraph<E ,T extends Comparable<T>> {
             return Collections.unmodifiableSet(graph.get(parentNode));
         }
     }
-}
\ No newline at end of file
+
+    /**Returns a Set of the in-bound edges of childNode that are contained in this.edges. This takes
+     * time proportional to the number of in-bound edges if this graph indexes them, and to the size
+     * of this.edges otherwise.
+     * @param childNode the node whose associated in-bound edges are to be returned
+     * @spec.requires childNode is present in this.nodes.
+     * @throws IllegalArgumentException if childNode = null
+     * @return a Set of the in-bound edges of childNode that are contained in this.edges.
+     */
+    public Set<DirectedLabeledEdge<E, T>> listParents(E childNode) {
+        checkRep();
+        if (childNode == null) {
+            throw new IllegalArgumentException("Cannot list parents of a null node");
+        } else if (!graph.containsKey(childNode)) {
+            throw new IllegalArgumentException(childNode + " does not exist in the graph");
+        } else if (parents != null) {
+            return Collections.unmodifiableSet(parents.get(childNode));
+        } else {
+            Set<DirectedLabeledEdge<E, T>> result = new HashSet<>();
+            for (Set<DirectedLabeledEdge<E, T>> edges: graph.values()) {
+                for (DirectedLabeledEdge<E, T> edge: edges) {
+                    if (edge.getDest().equals(childNode)) {
+                        result.add(edge);
+                    }
+                }
+            }
+            return Collections.unmodifiableSet(result);
+        }
+    }
+
+    /**Returns the order listChildren lists the out-bound edges of a node in.
+     * @return the comparator the out-bound edges of each node are sorted by, or null if they are
+     * listed in no particular order
+     */
+    public Comparator<? super DirectedLabeledEdge<E, T>> childOrder() {
+        return childOrder;
+    }
+
+    /**Returns an immutable view of this graph as it is now. Later changes to this graph are not
+     * seen by the snapshot, so searches over it see one consistent graph. Taking a snapshot costs
+     * constant time; the first modification of this graph after it copies the node map, and the
+     * first modification of each node's edges after it copies that node's edge set. This may be
+     * called by any thread, even while another thread modifies this graph.
+     * @return a Graph with the same nodes and edges as this, that never changes.
+     */
+    public synchronized GraphSnapshot<E, T> snapshot() {
+        checkRep();
+        if (latest == null) {
+            latest = new GraphSnapshot<>(graph, parents, childOrder);
+            mapsShared = true;
+            owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        return latest;
+    }
+
+    //called before every modification, with the lock of this graph held: copies the node maps if a
+    // snapshot shares them.
+    private void prepareWrite() {
+        latest = null;
+        if (mapsShared) {
+            graph = new HashMap<>(graph);
+            if (parents != null) {
+                parents = new HashMap<>(parents);
+            }
+            mapsShared = false;
+        }
+    }
+
+    //returns a new, empty edge set sorted by order, or a hash set if order is null, that belongs to
+    // this graph alone.
+    private Set<DirectedLabeledEdge<E, T>> newEdgeSet(Comparator<? super DirectedLabeledEdge<E, T>> order) {
+        Set<DirectedLabeledEdge<E, T>> edges = (order == null) ? new HashSet<>() : new TreeSet<>(order);
+        if (owned != null) {
+            owned.add(edges);
+        }
+        return edges;
+    }
+
+    //returns the edge set of node in map, first replacing it with a copy if a snapshot shares it.
+    private Set<DirectedLabeledEdge<E, T>> writableEdges(Map<E, Set<DirectedLabeledEdge<E, T>>> map, E node) {
+        Set<DirectedLabeledEdge<E, T>> edges = map.get(node);
+        if (owned != null && !owned.contains(edges)) {
+            //copying a sorted set keeps its comparator, and copies it without comparing any edges.
+            edges = (edges instanceof SortedSet) ? new TreeSet<>((SortedSet<DirectedLabeledEdge<E, T>>) edges)
+                    : new HashSet<>(edges);
+            owned.add(edges);
+            map.put(node, edges);
+        }
+        return edges;
+    }
+
+    /**
+     * <b>Builder</b> loads nodes and edges in bulk and produces a finished DirectedGraph. Unlike
+     * DirectedGraph.addEdge, Builder.addEdge adds the src and dest nodes of an edge if they are not
+     * already present, and does not check the rep invariant for every call; duplicate nodes and
+     * edges are dropped as they are added. A Builder can build only one graph.
+     *
+     * <p>A Builder for a graph with sorted out-bound edges collects them in hash sets and sorts the
+     * edges of each node once, when the graph is built.
+     *
+     * @spec.specfield nodes: set. A set of all the nodes added so far
+     * @spec.specfield <br>edges: set. A set of all the directed edges added so far
+     */
+    public static class Builder<E, T extends Comparable<T>> {
+
+        private Map<E, Set<DirectedLabeledEdge<E, T>>> graph;
+        private final boolean indexParents;
+        private final Comparator<? super DirectedLabeledEdge<E, T>> childOrder;
+
+        // Abstraction Function:
+        // The keys of graph are all the nodes added so far, and graph associates each node with a
+        // hashSet of its outgoing edges. graph is null once the graph has been built.
+
+        // RepInvariant:
+        // if graph != null, the rep invariant of DirectedGraph holds for graph.
+
+        /**Creates a new Builder for a graph without an index of in-bound edges.
+         * @spec.effects constructs a new Builder with no nodes or edges
+         */
+        public Builder() {
+            this(16, false);
+        }
+
+        /**Creates a new Builder for a graph with about expectedNodes nodes.
+         * @param expectedNodes the number of nodes the graph is expected to have, used to size it
+         * @param indexParents true if the built graph should index the in-bound edges of every node
+         * @throws IllegalArgumentException if expectedNodes &lt; 0
+         * @spec.effects constructs a new Builder with no nodes or edges
+         */
+        public Builder(int expectedNodes, boolean indexParents) {
+            this(expectedNodes, indexParents, null);
+        }
+
+        /**Creates a new Builder for a graph with about expectedNodes nodes, which keeps the out-bound
+         * edges of every node sorted by childOrder if it is not null.
+         * @param expectedNodes the number of nodes the graph is expected to have, used to size it
+         * @param indexParents true if the built graph should index the in-bound edges of every node
+         * @param childOrder the order the built graph lists the out-bound edges of a node in, or null
+         *                   for no particular order
+         * @throws IllegalArgumentException if expectedNodes &lt; 0
+         * @spec.requires childOrder, if not null, only returns 0 for two edges with the same src node
+         * if they are equal
+         * @spec.effects constructs a new Builder with no nodes or edges
+         */
+        public Builder(int expectedNodes, boolean indexParents,
+                       Comparator<? super DirectedLabeledEdge<E, T>> childOrder) {
+            if (expectedNodes < 0) {
+                throw new IllegalArgumentException("Cannot expect a negative number of nodes.");
+            }
+            this.graph = new HashMap<>(capacityFor(expectedNodes));
+            this.indexParents = indexParents;
+            this.childOrder = childOrder;
+        }
+
+        /**Adds the specified node, n, to this.nodes if it is not already present.
+         * @param n the node to be added
+         * @throws IllegalArgumentException if n = null
+         * @throws IllegalStateException if the graph has already been built
+         * @spec.modifies this
+         * @spec.effects adds n to this.nodes
+         * @return this
+         */
+        public Builder<E, T> addNode(E n) {
+            checkNotBuilt();
+            if (n == null) {
+                throw new IllegalArgumentException("Cannot add a null node to the graph.");
+            }
+            graph.computeIfAbsent(n, node -> new HashSet<>());
+            return this;
+        }
+
+        /**Adds each node in nodes to this.nodes if it is not already present.
+         * @param nodes the nodes to be added
+         * @throws IllegalArgumentException if nodes = null or nodes contains null
+         * @throws IllegalStateException if the graph has already been built
+         * @spec.modifies this
+         * @spec.effects adds every node in nodes to this.nodes
+         * @return this
+         */
+        public Builder<E, T> addNodes(Collection<? extends E> nodes) {
+            if (nodes == null) {
+                throw new IllegalArgumentException("Cannot add a null collection of nodes.");
+            }
+            for (E node : nodes) {
+                addNode(node);
+            }
+            return this;
+        }
+
+        /**Adds the specified edge, e, to this.edges if it is not already present, and its src and
+         * dest nodes to this.nodes if they are not already present.
+         * @param e the edge to be added
+         * @throws IllegalArgumentException if e = null
+         * @throws IllegalStateException if the graph has already been built
+         * @spec.modifies this
+         * @spec.effects adds e to this.edges, and e.src and e.dest to this.nodes
+         * @return this
+         */
+        public Builder<E, T> addEdge(DirectedLabeledEdge<E, T> e) {
+            checkNotBuilt();
+            if (e == null) {
+                throw new IllegalArgumentException("Cannot add a null edge to the graph.");
+            }
+            graph.computeIfAbsent(e.getSrc(), node -> new HashSet<>()).add(e);
+            if (!graph.containsKey(e.getDest())) {
+                graph.put(e.getDest(), new HashSet<>());
+            }
+            return this;
+        }
+
+        /**Adds each edge in edges to this.edges, and their src and dest nodes to this.nodes, if they
+         * are not already present.
+         * @param edges the edges to be added
+         * @throws IllegalArgumentException if edges = null or edges contains null
+         * @throws IllegalStateException if the graph has already been built
+         * @spec.modifies this
+         * @spec.effects adds every edge in edges to this.edges, and their nodes to this.nodes
+         * @return this
+         */
+        public Builder<E, T> addEdges(Collection<? extends DirectedLabeledEdge<E, T>> edges) {
+            if (edges == null) {
+                throw new IllegalArgumentException("Cannot add a null collection of edges.");
+            }
+            for (DirectedLabeledEdge<E, T> edge : edges) {
+                addEdge(edge);
+            }
+            return this;
+        }
+
+        /**Returns a DirectedGraph with this.nodes and this.edges. The builder cannot be used after
+         * this is called.
+         * @throws IllegalStateException if the graph has already been built
+         * @spec.modifies this
+         * @return a new DirectedGraph with this.nodes and this.edges
+         */
+        public DirectedGraph<E, T> build() {
+            checkNotBuilt();
+            Map<E, Set<DirectedLabeledEdge<E, T>>> parents = null;
+            if (indexParents) {
+                parents = new HashMap<>(capacityFor(graph.size()));
+                for (E node : graph.keySet()) {
+                    parents.put(node, new HashSet<>());
+                }
+                for (Set<DirectedLabeledEdge<E, T>> edges : graph.values()) {
+                    for (DirectedLabeledEdge<E, T> edge : edges) {
+                        parents.get(edge.getDest()).add(edge);
+                    }
+                }
+            }
+            if (childOrder != null) {
+                //each node's edges are sorted on their own, so the nodes are shared out across the
+                // common ForkJoinPool. setValue doesn't change the structure of the map.
+                graph.entrySet().parallelStream().forEach(entry -> {
+                    Set<DirectedLabeledEdge<E, T>> sorted = new TreeSet<>(childOrder);
+                    sorted.addAll(entry.getValue());
+                    entry.setValue(sorted);
+                });
+            }
+            DirectedGraph<E, T> result = new DirectedGraph<>(graph, parents, childOrder);
+            graph = null;
+            return result;
+        }
+
+        //throws an IllegalStateException if build has already been called.
+        private void checkNotBuilt() {
+            if (graph == null) {
+                throw new IllegalStateException("This builder has already built its graph.");
+            }
+        }
+
+        //returns the initial capacity of a HashMap that holds size entries without resizing.
+        private static int capacityFor(int size) {
+            return (int) (size / 0.75f) + 1;
+        }
+    }
+}
@@ -19,6 +19,7 @@ public final class DirectedLabeledEdge<E, T extends Comparable<T>> {
     private final E src;
     private final E dest;
     private final T label;
+    private final int hash;
 
      // Abstraction function:
         // A DirectedLabelEdge, e, is a directed edge from a parent node, e.src, to a child node, this.dest
@@ -27,7 +28,8 @@ public final class DirectedLabeledEdge<E, T extends Comparable<T>> {
 
      //Representation invariant:
         //for every DirectedLabeledEdge e:
-        // e.src != null && e.dest != null && e.label != null
+        // e.src != null && e.dest != null && e.label != null &&
+        // e.hash == mix(e.src.hashCode(), e.dest.hashCode(), e.label.hashCode())
 
     /** Throws an exception if the representation invariant is violated. */
     private void checkRep() {
@@ -51,9 +53,23 @@ public final class DirectedLabeledEdge<E, T extends Comparable<T>> {
         this.src = src;
         this.dest = dest;
         this.label = label;
+        this.hash = mix(src.hashCode(), dest.hashCode(), label.hashCode());
         checkRep();
     }
 
+    //combines the hash codes of the parts of an edge so that swapping src and dest changes the
+    // result, then runs the finalizer of MurmurHash3 over it so that edges that differ in only a few
+    // bits of dest or label still spread over the whole table of a HashSet.
+    private static int mix(int src, int dest, int label) {
+        int h = (src * 31 + dest) * 31 + label;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
     /**Gets the source node, src, of this DirectedLabeledEdge.
      *@return this.src, the source node of this DirectedLabeledEdge
      */
@@ -75,12 +91,13 @@ public final class DirectedLabeledEdge<E, T extends Comparable<T>> {
         return label;
     }
 
-    /**Returns the hash code value for this edge.
+    /**Returns the hash code value for this edge. The hash code is computed once, when the edge is
+     * constructed, so probing a hash set of edges never rehashes src, dest or label.
      * @return the hash code value of this edge
      */
     @Override
     public int hashCode() {
-        return (this.src.hashCode() * 2) + (this.dest.hashCode() * 3) + (this.label.hashCode() * 5);
+        return hash;
     }
 
     /**Compares the specified object with this edge for for equality. The result is true if and
@@ -100,7 +117,10 @@ public final class DirectedLabeledEdge<E, T extends Comparable<T>> {
         } else {
             DirectedLabeledEdge e = (DirectedLabeledEdge) obj;
             checkRep();
-            return this.src.equals(e.src) && this.dest.equals(e.dest) && this.label.equals(e.label);
+            //edges with different hash codes cannot be equal, which rejects most mismatches
+            // without comparing their parts.
+            return this.hash == e.hash && this.src.equals(e.src) && this.dest.equals(e.dest)
+                    && this.label.equals(e.label);
         }
     }
     /*
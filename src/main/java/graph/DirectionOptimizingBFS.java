@@ -0,0 +1,176 @@
+package graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <b>DirectionOptimizingBFS</b> finds shortest paths in a symmetric CompactGraph with a
+ * breadth-first search that switches direction level by level, as described by Beamer, Asanović
+ * and Patterson. A top-down step pushes along the edges of every node in the frontier, as an
+ * ordinary BFS does. A bottom-up step instead has every unvisited node scan its own edges for a
+ * node in the frontier, and stops at the first one it finds. When the frontier holds most of the
+ * graph's edges, as the middle levels of a small-world graph do, most of a top-down step's edges
+ * lead to nodes that are already visited, and the bottom-up step is much cheaper.
+ *
+ * <p>Frontiers are bitsets over node ids. The search goes bottom-up once the edges out of the
+ * frontier outnumber the edges out of the unvisited nodes divided by ALPHA, and back top-down once
+ * the frontier shrinks below nodeCount() / BETA nodes.
+ *
+ * <p>The path returned is, among all shortest paths, the one whose sequence of node ids is least,
+ * taking the entry of least label id between each pair of nodes. On a graph built by
+ * CompactGraph.sorted that is the path whose sequence of nodes is least, as an ordinary BFS that
+ * visits children in order finds.
+ */
+
+public final class DirectionOptimizingBFS {
+
+    // No Abstraction Function or RepInvariant listed because DirectionOptimizingBFS is not
+    // an Abstract Data Type.
+
+    /** Going bottom-up pays off once the frontier has more than 1/ALPHA of the unvisited edges. */
+    public static final int ALPHA = 14;
+    /** Going back top-down pays off once the frontier has fewer than 1/BETA of the nodes. */
+    public static final int BETA = 24;
+
+    private DirectionOptimizingBFS() {
+    }
+
+    /**
+     * Finds the shortest path from start to dest in graph.
+     *
+     * @spec.requires for each edge in graph, graph contains the edge in the other direction
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null, or graph does not
+     * contain start and dest.
+     * @param graph the graph to search
+     * @param start the node the path starts at
+     * @param dest the node the path ends at
+     * @return a List of the edges of the shortest path from start to dest with the least sequence of
+     * node ids, empty if start equals dest, or null if there is no path.
+     */
+    public static <E, T extends Comparable<T>> List<DirectedLabeledEdge<E, T>> findPath(
+            CompactGraph<E, T> graph, E start, E dest) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        int[] distance = distances(graph, startId, destId);
+        if (distance[destId] == -1) {
+            return null; //means no path exists.
+        }
+        //marks the nodes on some shortest path by walking back from dest to nodes one level closer
+        // to start, so the walk forward from start never takes a dead end.
+        boolean[] onPath = new boolean[graph.nodeCount()];
+        int[] stack = new int[graph.nodeCount()];
+        int top = 0;
+        onPath[destId] = true;
+        stack[top++] = destId;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int parent = graph.target(edge);
+                if (distance[parent] == distance[node] - 1 && !onPath[parent]) {
+                    onPath[parent] = true;
+                    stack[top++] = parent;
+                }
+            }
+        }
+        //entries are stored in order of target id, so the first one that stays on a shortest path
+        // leads to the least next node.
+        List<DirectedLabeledEdge<E, T>> path = new ArrayList<>(distance[destId]);
+        int node = startId;
+        while (node != destId) {
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int next = graph.target(edge);
+                if (onPath[next] && distance[next] == distance[node] + 1) {
+                    path.add(graph.edge(node, edge));
+                    node = next;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Finds the distance from source to every node of graph at most as far from source as target.
+     *
+     * @spec.requires for each edge in graph, graph contains the edge in the other direction, and
+     * 0 &lt;= source &lt; graph.nodeCount() and -1 &lt;= target &lt; graph.nodeCount()
+     * @param graph the graph to search
+     * @param source the id of the node distances are measured from
+     * @param target the id of the node the search may stop at, or -1 to search the whole graph
+     * @return an array holding, at each node id, the number of edges on a shortest path from source to
+     * that node, or -1 if that node is unreachable or further from source than target.
+     */
+    public static int[] distances(CompactGraph<?, ?> graph, int source, int target) {
+        int nodeCount = graph.nodeCount();
+        int[] distance = new int[nodeCount];
+        Arrays.fill(distance, -1);
+        distance[source] = 0;
+        long[] frontier = new long[(nodeCount + 63) >>> 6];
+        long[] next = new long[frontier.length];
+        frontier[source >>> 6] |= 1L << source;
+        int frontierSize = 1;
+        //edges out of the frontier, and edges out of the nodes not visited yet.
+        long frontierEdges = degree(graph, source);
+        long unvisitedEdges = graph.entryCount() - frontierEdges;
+        boolean bottomUp = false;
+        //each level is finished before target is checked, so every node as close as target gets its distance.
+        for (int level = 1; frontierSize > 0 && (target == -1 || distance[target] == -1); level++) {
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < nodeCount / BETA) {
+                bottomUp = false;
+            }
+            Arrays.fill(next, 0);
+            frontierSize = 0;
+            frontierEdges = 0;
+            if (bottomUp) {
+                for (int node = 0; node < nodeCount; node++) {
+                    if (distance[node] != -1) {
+                        continue;
+                    }
+                    for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                        int parent = graph.target(edge);
+                        if ((frontier[parent >>> 6] & (1L << parent)) != 0) {
+                            distance[node] = level;
+                            next[node >>> 6] |= 1L << node;
+                            frontierSize++;
+                            frontierEdges += degree(graph, node);
+                            break;
+                        }
+                    }
+                }
+            } else {
+                for (int word = 0; word < frontier.length; word++) {
+                    for (long bits = frontier[word]; bits != 0; bits &= bits - 1) {
+                        int node = (word << 6) + Long.numberOfTrailingZeros(bits);
+                        for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                            int child = graph.target(edge);
+                            if (distance[child] == -1) {
+                                distance[child] = level;
+                                next[child >>> 6] |= 1L << child;
+                                frontierSize++;
+                                frontierEdges += degree(graph, child);
+                            }
+                        }
+                    }
+                }
+            }
+            unvisitedEdges -= frontierEdges;
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return distance;
+    }
+
+    //returns the number of entries out of node.
+    private static int degree(CompactGraph<?, ?> graph, int node) {
+        return graph.endEdge(node) - graph.firstEdge(node);
+    }
+}
@@ -0,0 +1,56 @@
+package graph;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * <b>Graph</b> is the set of queries shared by the directed labeled graphs in this package, so
+ * that searches can run over any of them, including snapshots that cannot be modified. The graphs
+ * that can be modified implement MutableGraph. A Graph, G, can be notated by the ordered
+ * pair G =(N. E), where N = {n_1, n_2,...,n_i} is a set, a distinct collection, of i nodes and
+ * E = {e_1, e_2,...,e_j} is a set, a distinct collection, of j directed labeled edges.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
+ *
+ */
+
+public interface Graph<E, T extends Comparable<T>> {
+
+    /**Returns true if the specified node, n, is present in this.nodes.
+     * @param n the node to check if its present in this.nodes
+     * @return true if this.nodes contains n
+     */
+    boolean containsNode(E n);
+
+    /**Returns true if the specified edge, e, is present in this.edges.
+     * @param e the edge to check if its present in this.edges
+     * @spec.requires the src node contained in e must exist in this.nodes
+     * @return true if this.edges contains e
+     */
+    boolean containsEdge(DirectedLabeledEdge<E, T> e);
+
+    /**Returns a read-only Set of nodes that are contained in this.nodes.
+     * @return a Set of nodes that are contained in this.nodes.
+     */
+    Set<E> listNodes();
+
+    /**Returns a read-only Set of the out-bound edges of parentNode that are contained in this.edges.
+     * @param parentNode the node whose associated out-bound edges are to be returned
+     * @throws IllegalArgumentException if parentNode = null or parentNode is not in this.nodes
+     * @return a Set of the out-bound edges of parentNode that are contained in this.edges.
+     */
+    Set<DirectedLabeledEdge<E, T>> listChildren(E parentNode);
+
+    /**Returns a read-only Set of the in-bound edges of childNode that are contained in this.edges.
+     * @param childNode the node whose associated in-bound edges are to be returned
+     * @throws IllegalArgumentException if childNode = null or childNode is not in this.nodes
+     * @return a Set of the in-bound edges of childNode that are contained in this.edges.
+     */
+    Set<DirectedLabeledEdge<E, T>> listParents(E childNode);
+
+    /**Returns the order listChildren lists the out-bound edges of a node in.
+     * @return the comparator the out-bound edges of each node are listed in, or null if they are
+     * listed in no particular order
+     */
+    Comparator<? super DirectedLabeledEdge<E, T>> childOrder();
+}
@@ -0,0 +1,118 @@
+package graph;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>GraphSnapshot</b> is an immutable view of a DirectedGraph as it was when
+ * DirectedGraph.snapshot() was called. It shares its maps and edge sets with the graph it came
+ * from, which copies them before modifying them again, so the snapshot never changes and can be
+ * searched by any number of threads while the graph goes on being modified.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
+ *
+ */
+
+public final class GraphSnapshot<E, T extends Comparable<T>> implements Graph<E, T> {
+
+    private final Map<E, Set<DirectedLabeledEdge<E, T>>> graph;
+    private final Map<E, Set<DirectedLabeledEdge<E, T>>> parents;
+    private final Comparator<? super DirectedLabeledEdge<E, T>> childOrder;
+
+    // Abstraction Function:
+    // The keys of graph are all the nodes in the graph.
+    // graph associates each node with a set of its outgoing edges.
+    // If parents != null, parents associates each node with a set of its ingoing edges.
+    // If childOrder != null, the sets in graph are sorted by childOrder.
+
+    // RepInvariant:
+    // graph != null && the rep invariant of DirectedGraph holds for graph and parents &&
+    // neither graph, parents, nor any set in their values is ever modified.
+
+    /**Creates a new GraphSnapshot over the maps of a DirectedGraph.
+     * @param graph the map from each node to its out-bound edges
+     * @param parents the map from each node to its in-bound edges, or null if there is none
+     * @param childOrder the comparator the sets in graph are sorted by, or null if they are unsorted
+     * @spec.requires graph and parents are never modified after this call
+     * @spec.effects constructs a new GraphSnapshot of the graph that graph and parents represent
+     */
+    GraphSnapshot(Map<E, Set<DirectedLabeledEdge<E, T>>> graph,
+                  Map<E, Set<DirectedLabeledEdge<E, T>>> parents,
+                  Comparator<? super DirectedLabeledEdge<E, T>> childOrder) {
+        this.graph = graph;
+        this.parents = parents;
+        this.childOrder = childOrder;
+    }
+
+    /**Returns true if the specified node, n, is present in this.nodes.
+     * @param n the node to check if its present in this.nodes
+     * @return true if this.nodes contains n
+     */
+    public boolean containsNode(E n) {
+        return n != null && graph.containsKey(n);
+    }
+
+    /**Returns true if the specified edge, e, is present in this.edges.
+     * @param e the edge to check if its present in this.edges
+     * @return true if this.edges contains e
+     */
+    public boolean containsEdge(DirectedLabeledEdge<E, T> e) {
+        return e != null && graph.containsKey(e.getSrc()) && graph.get(e.getSrc()).contains(e);
+    }
+
+    /**Returns an unmodifiable Set of nodes that are contained in this.nodes.
+     * @return a Set of nodes that are contained in this.nodes.
+     */
+    public Set<E> listNodes() {
+        return Collections.unmodifiableSet(graph.keySet());
+    }
+
+    /**Returns an unmodifiable Set of the out-bound edges of parentNode that are contained in this.edges.
+     * @param parentNode the node whose associated out-bound edges are to be returned
+     * @throws IllegalArgumentException if parentNode = null or parentNode is not in this.nodes
+     * @return a Set of the out-bound edges of parentNode that are contained in this.edges.
+     */
+    public Set<DirectedLabeledEdge<E, T>> listChildren(E parentNode) {
+        if (parentNode == null) {
+            throw new IllegalArgumentException("Cannot list children of a null node");
+        } else if (!graph.containsKey(parentNode)) {
+            throw new IllegalArgumentException(parentNode + " does not exist in the graph");
+        }
+        return Collections.unmodifiableSet(graph.get(parentNode));
+    }
+
+    /**Returns the order listChildren lists the out-bound edges of a node in.
+     * @return the comparator the out-bound edges of each node are sorted by, or null if they are
+     * listed in no particular order
+     */
+    public Comparator<? super DirectedLabeledEdge<E, T>> childOrder() {
+        return childOrder;
+    }
+
+    /**Returns an unmodifiable Set of the in-bound edges of childNode that are contained in this.edges.
+     * @param childNode the node whose associated in-bound edges are to be returned
+     * @throws IllegalArgumentException if childNode = null or childNode is not in this.nodes
+     * @return a Set of the in-bound edges of childNode that are contained in this.edges.
+     */
+    public Set<DirectedLabeledEdge<E, T>> listParents(E childNode) {
+        if (childNode == null) {
+            throw new IllegalArgumentException("Cannot list parents of a null node");
+        } else if (!graph.containsKey(childNode)) {
+            throw new IllegalArgumentException(childNode + " does not exist in the graph");
+        } else if (parents != null) {
+            return Collections.unmodifiableSet(parents.get(childNode));
+        }
+        Set<DirectedLabeledEdge<E, T>> result = new HashSet<>();
+        for (Set<DirectedLabeledEdge<E, T>> edges: graph.values()) {
+            for (DirectedLabeledEdge<E, T> edge: edges) {
+                if (edge.getDest().equals(childNode)) {
+                    result.add(edge);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -0,0 +1,136 @@
+package graph;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * <b>Interner</b> is a mutable table that gives each distinct value it is shown a dense int id,
+ * in [0, size()), and maps ids back to values. Interning the nodes and labels of a graph once at
+ * load time lets searches compare and hash small ints instead of the values themselves, and
+ * translate back only when results are shown.
+ *
+ * <p>An Interner built by sorted(values) gives ids in ascending order of the values, so comparing
+ * the ids of two values compares the values.
+ *
+ * @spec.specfield values: sequence. The distinct values interned so far, where the id of a value
+ * is its index in the sequence
+ *
+ */
+
+public final class Interner<E> {
+
+    private final Map<E, Integer> ids;
+    private final List<E> values;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // this.values is values, and ids maps each value to its index in values.
+
+    // RepInvariant:
+    // ids != null && values != null && ids.size() == values.size() &&
+    // for each i, values.get(i) != null && ids.get(values.get(i)) == i
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (ids != null && values != null);
+            assert (ids.size() == values.size());
+            for (int i = 0; i < values.size(); i++) {
+                assert (values.get(i) != null);
+                assert (ids.get(values.get(i)) == i);
+            }
+        }
+    }
+
+    /**Creates a new, empty Interner.
+     * @spec.effects constructs a new Interner with this.values = []
+     */
+    public Interner() {
+        this(16);
+    }
+
+    /**Creates a new, empty Interner sized to hold about expectedSize values without resizing.
+     * @param expectedSize the number of values expected to be interned
+     * @spec.effects constructs a new Interner with this.values = []
+     */
+    public Interner(int expectedSize) {
+        ids = new HashMap<>((int) (Math.max(expectedSize, 0) / 0.75f) + 1);
+        values = new ArrayList<>(Math.max(expectedSize, 0));
+        checkRep();
+    }
+
+    /**Creates a new Interner holding the distinct values in values, with ids given in ascending order
+     * of the values.
+     * @param values the values to intern
+     * @throws IllegalArgumentException if values = null or values contains null
+     * @return a new Interner in which, for any interned a and b, idOf(a) &lt; idOf(b) iff a &lt; b
+     */
+    public static <E extends Comparable<? super E>> Interner<E> sorted(Collection<? extends E> values) {
+        if (values == null || values.contains(null)) {
+            throw new IllegalArgumentException("Cannot intern null values.");
+        }
+        TreeSet<E> distinct = new TreeSet<>(values);
+        Interner<E> interner = new Interner<>(distinct.size());
+        for (E value : distinct) {
+            interner.intern(value);
+        }
+        return interner;
+    }
+
+    /**Returns the id of the specified value, giving it the next unused id if it has none yet.
+     * @param value the value to intern
+     * @throws IllegalArgumentException if value = null
+     * @spec.modifies this
+     * @spec.effects appends value to this.values if it is not already present
+     * @return the id of value
+     */
+    public int intern(E value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot intern a null value.");
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+            checkRep();
+        }
+        return id;
+    }
+
+    /**Returns the id of the specified value.
+     * @param value the value whose id is to be returned
+     * @return the id of value, or -1 if value has not been interned
+     */
+    public int idOf(E value) {
+        Integer id = (value == null) ? null : ids.get(value);
+        return (id == null) ? -1 : id;
+    }
+
+    /**Returns the value with the specified id.
+     * @param id the id of the value to be returned
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return this.values[id]
+     */
+    public E valueOf(int id) {
+        return values.get(id);
+    }
+
+    /**Returns the number of values interned so far.
+     * @return |this.values|
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**Returns the interned values in order of their ids.
+     * @return an unmodifiable view of this.values
+     */
+    public List<E> values() {
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,49 @@
+package graph;
+
+/**
+ * <b>MutableGraph</b> is a Graph that can be modified, adding the operations shared by the mutable
+ * directed labeled graphs in this package to the queries of Graph.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed edges in the graph
+ *
+ */
+
+public interface MutableGraph<E, T extends Comparable<T>> extends Graph<E, T> {
+
+    /**Adds the specified node, n, to this.nodes if it is not already present.
+     * @param n the node to be added to this.nodes
+     * @throws IllegalArgumentException if n = null
+     * @spec.modifies this.
+     * @spec.effects adds n to this.nodes
+     * @return true if this.nodes did not already contain n
+     */
+    boolean addNode(E n);
+
+    /**Adds the specified edge, e, to this.edges if it is not already present.
+     * @param e the edge to be added to this.edges.
+     * @throws IllegalArgumentException if e = null or the src or dest node of e is not in this.nodes
+     * @spec.modifies this
+     * @spec.effects adds e to this.edges
+     * @return true if this.edges did not already contain e
+     */
+    boolean addEdge(DirectedLabeledEdge<E, T> e);
+
+    /**Removes the specified node, n, and all of its in-bound and out-bound edges from this.
+     * @param n the node to be removed from this.nodes
+     * @throws IllegalArgumentException if n = null or n is not in this.nodes
+     * @spec.modifies this
+     * @spec.effects removes n from this.nodes, and every edge to or from n from this.edges
+     * @return true if this.nodes contained n
+     */
+    boolean removeNode(E n);
+
+    /**Removes the specified edge, e, from this.edges.
+     * @param e the edge to be removed from this.edges
+     * @throws IllegalArgumentException if e = null or e is not in this.edges
+     * @spec.modifies this
+     * @spec.effects removes e from this.edges
+     * @return true if this.edges contained e.
+     */
+    boolean removeEdge(DirectedLabeledEdge<E, T> e);
+}
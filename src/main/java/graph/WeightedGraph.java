@@ -0,0 +1,174 @@
+package graph;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <b>WeightedGraph</b> is an immutable, read-only representation of a DirectedGraph whose edge
+ * labels are Double weights, stored in compressed sparse row (CSR) form. Every node is assigned a
+ * dense int id in [0, nodeCount()), and the out-bound edges of node id are the edge indices
+ * [firstEdge(id), endEdge(id)) of two parallel arrays, one holding the id of each edge's dest node
+ * and one holding each edge's weight as a primitive double.
+ *
+ * <p>Unlike a CompactGraph&lt;E, Double&gt;, a WeightedGraph never boxes a weight, so a search over
+ * it can relax edges without allocating.
+ *
+ * @spec.specfield nodes: set. A set of all the nodes in the graph
+ * @spec.specfield <br>edges: set. A set of all the directed weighted edges in the graph
+ *
+ */
+
+public final class WeightedGraph<E> {
+
+    private final Map<E, Integer> ids;
+    private final Object[] nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // nodes[i] is the node with id i, and ids maps each node back to its id.
+    // The out-bound edges of the node with id i are, for each k with offsets[i] <= k < offsets[i + 1],
+    // the edge from nodes[i] to nodes[targets[k]] with weight weights[k].
+
+    // RepInvariant:
+    // ids != null && nodes != null && offsets != null && targets != null && weights != null &&
+    // ids.size() == nodes.length && offsets.length == nodes.length + 1 &&
+    // offsets[0] == 0 && offsets[nodes.length] == targets.length && targets.length == weights.length &&
+    // offsets is non-decreasing && for each k, 0 <= targets[k] < nodes.length &&
+    // for each i, nodes[i] != null && ids.get(nodes[i]) == i
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (ids != null && nodes != null && offsets != null && targets != null && weights != null);
+            assert (ids.size() == nodes.length);
+            assert (offsets.length == nodes.length + 1);
+            assert (offsets[0] == 0 && offsets[nodes.length] == targets.length);
+            assert (targets.length == weights.length);
+            for (int i = 0; i < nodes.length; i++) {
+                assert (nodes[i] != null);
+                assert (ids.get(nodes[i]) == i);
+                assert (offsets[i] <= offsets[i + 1]);
+            }
+            for (int k = 0; k < targets.length; k++) {
+                assert (0 <= targets[k] && targets[k] < nodes.length);
+            }
+        }
+    }
+
+    /**Creates a new WeightedGraph holding the same nodes and edges as graph, with each edge's label
+     * as its weight.
+     * @param graph the graph to copy into weighted form
+     * @throws IllegalArgumentException if graph = null
+     * @spec.effects constructs a new WeightedGraph with this.nodes = graph.nodes and this.edges =
+     * graph.edges
+     */
+    public WeightedGraph(DirectedGraph<E, Double> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Cannot copy a null graph.");
+        }
+        int nodeCount = graph.listNodes().size();
+        ids = new HashMap<>(nodeCount * 4 / 3 + 1);
+        nodes = new Object[nodeCount];
+        offsets = new int[nodeCount + 1];
+        for (E node : graph.listNodes()) {
+            nodes[ids.size()] = node;
+            ids.put(node, ids.size());
+        }
+        //first pass counts the out-bound edges of each node so the edge arrays can be sized exactly.
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] = offsets[i] + graph.listChildren(node(i)).size();
+        }
+        targets = new int[offsets[nodeCount]];
+        weights = new double[offsets[nodeCount]];
+        //second pass copies each node's edges into its slice of the edge arrays.
+        for (int i = 0; i < nodeCount; i++) {
+            int k = offsets[i];
+            for (DirectedLabeledEdge<E, Double> edge : graph.listChildren(node(i))) {
+                targets[k] = ids.get(edge.getDest());
+                weights[k] = edge.getLabel();
+                k++;
+            }
+        }
+        checkRep();
+    }
+
+    /**Returns the number of nodes in this.nodes.
+     * @return |this.nodes|
+     */
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /**Returns the number of edges in this.edges.
+     * @return |this.edges|
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**Returns true if the specified node, n, is present in this.nodes.
+     * @param n the node to check if its present in this.nodes
+     * @return true if this.nodes contains n
+     */
+    public boolean containsNode(E n) {
+        return n != null && ids.containsKey(n);
+    }
+
+    /**Returns the id of the specified node, n.
+     * @param n the node whose id is to be returned
+     * @return the id of n, or -1 if n is not present in this.nodes
+     */
+    public int idOf(E n) {
+        Integer id = (n == null) ? null : ids.get(n);
+        return (id == null) ? -1 : id;
+    }
+
+    /**Returns the node with the specified id.
+     * @param id the id of the node to be returned
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return the node in this.nodes whose id is id
+     */
+    @SuppressWarnings("unchecked")
+    public E node(int id) {
+        return (E) nodes[id];
+    }
+
+    /**Returns the index of the first out-bound edge of the node with the specified id.
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return the index of the first out-bound edge of the node with the specified id
+     */
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**Returns one past the index of the last out-bound edge of the node with the specified id,
+     * so the out-bound edges of the node are the edge indices [firstEdge(id), endEdge(id)).
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeCount()
+     * @return one past the index of the last out-bound edge of the node with the specified id
+     */
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**Returns the id of the dest node of the edge at the specified index.
+     * @param edge the index of the edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return the id of the dest node of the edge at the specified index
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**Returns the weight of the edge at the specified index.
+     * @param edge the index of the edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return the weight of the edge at the specified index
+     */
+    public double weight(int edge) {
+        return weights[edge];
+    }
+}
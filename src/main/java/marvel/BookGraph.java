@@ -0,0 +1,294 @@
+package marvel;
+
+import graph.DirectedLabeledEdge;
+import graph.Interner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>BookGraph</b> is an immutable bipartite graph of the marvel dataset, in which each character is
+ * joined to the books they appeared in and each book to its characters, instead of each character
+ * being joined to every other character of each of their books. It takes memory linear in the size
+ * of the dataset, where the graph built by MarvelPaths.loadGraph grows with the square of the size
+ * of each book's cast.
+ *
+ * <p>findPath searches it with a breadth-first search that alternates between characters and
+ * books, expanding each book once, and finds the same path MarvelPaths.findPath finds in the
+ * graph built by MarvelPaths.loadGraph from the same books.
+ *
+ * @spec.specfield characters: set. The characters that appear in some book
+ * @spec.specfield <br>books: function. The set of characters that appeared in each book
+ */
+
+public final class BookGraph {
+
+    private final Interner<String> characters;
+    private final Interner<String> books;
+    private final int[] characterOffsets;
+    private final int[] characterBooks;
+    private final int[] bookOffsets;
+    private final int[] bookCharacters;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // this.characters is the values of characters, and for each book with id b in books,
+    // this.books(b) is the characters with the ids bookCharacters[bookOffsets[b], bookOffsets[b + 1]).
+    // characterBooks[characterOffsets[c], characterOffsets[c + 1]) are the ids of the books the
+    // character with id c appeared in.
+
+    // RepInvariant:
+    // characters, books and the arrays != null &&
+    // characterOffsets.length == characters.size() + 1 && bookOffsets.length == books.size() + 1 &&
+    // both offset arrays are nondecreasing, start at 0, and end at the length of the array they index &&
+    // the ids of characters and books are given in alphabetical order &&
+    // the ids within each range of characterBooks and bookCharacters are strictly increasing &&
+    // book b is listed for character c iff character c is listed for book b
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (characters != null && books != null);
+            assert (characterOffsets.length == characters.size() + 1);
+            assert (bookOffsets.length == books.size() + 1);
+            checkRanges(characterOffsets, characterBooks);
+            checkRanges(bookOffsets, bookCharacters);
+            for (int c = 0; c < characters.size(); c++) {
+                for (int i = characterOffsets[c]; i < characterOffsets[c + 1]; i++) {
+                    int b = characterBooks[i];
+                    assert (Arrays.binarySearch(bookCharacters, bookOffsets[b], bookOffsets[b + 1], c) >= 0);
+                }
+            }
+        }
+    }
+
+    //asserts that offsets splits ids into ranges of strictly increasing ids.
+    private static void checkRanges(int[] offsets, int[] ids) {
+        assert (offsets[0] == 0 && offsets[offsets.length - 1] == ids.length);
+        for (int n = 0; n + 1 < offsets.length; n++) {
+            assert (offsets[n] <= offsets[n + 1]);
+            for (int i = offsets[n] + 1; i < offsets[n + 1]; i++) {
+                assert (ids[i - 1] < ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Builds the bipartite graph of a book map, such as the one MarvelParser.parseData returns.
+     * A character listed more than once for a book is joined to it once.
+     *
+     * @throws IllegalArgumentException if books = null, or books contains a null book, list of
+     * characters, or character.
+     * @param books a map from each book to the characters that appeared in it
+     * @return a new BookGraph with this.books = books
+     */
+    public static BookGraph build(Map<String, List<String>> books) {
+        if (books == null || books.containsValue(null)) {
+            throw new IllegalArgumentException("Books cannot be null.");
+        }
+        List<String> names = new ArrayList<>();
+        for (List<String> bookCharacters : books.values()) {
+            names.addAll(bookCharacters);
+        }
+        Interner<String> characters = Interner.sorted(names);
+        Interner<String> titles = Interner.sorted(books.keySet());
+        //the characters of each book, by id and without repeats, laid out book after book.
+        int[] bookOffsets = new int[titles.size() + 1];
+        int[] bookCharacters = new int[names.size()];
+        int[] bookCounts = new int[characters.size()];
+        int size = 0;
+        for (int b = 0; b < titles.size(); b++) {
+            int from = size;
+            for (String name : books.get(titles.valueOf(b))) {
+                bookCharacters[size++] = characters.idOf(name);
+            }
+            Arrays.sort(bookCharacters, from, size);
+            int end = size;
+            size = from;
+            for (int i = from; i < end; i++) {
+                if (size == from || bookCharacters[i] != bookCharacters[size - 1]) {
+                    bookCharacters[size++] = bookCharacters[i];
+                    bookCounts[bookCharacters[i]]++;
+                }
+            }
+            bookOffsets[b + 1] = size;
+        }
+        bookCharacters = Arrays.copyOf(bookCharacters, size);
+        //the books of each character, filled in book id order so each character's are sorted.
+        int[] characterOffsets = new int[characters.size() + 1];
+        for (int c = 0; c < characters.size(); c++) {
+            characterOffsets[c + 1] = characterOffsets[c] + bookCounts[c];
+        }
+        int[] next = Arrays.copyOf(characterOffsets, characters.size());
+        int[] characterBooks = new int[size];
+        for (int b = 0; b < titles.size(); b++) {
+            for (int i = bookOffsets[b]; i < bookOffsets[b + 1]; i++) {
+                characterBooks[next[bookCharacters[i]]++] = b;
+            }
+        }
+        return new BookGraph(characters, titles, characterOffsets, characterBooks, bookOffsets, bookCharacters);
+    }
+
+    //creates a graph from its arrays, which it takes ownership of.
+    private BookGraph(Interner<String> characters, Interner<String> books, int[] characterOffsets,
+                      int[] characterBooks, int[] bookOffsets, int[] bookCharacters) {
+        this.characters = characters;
+        this.books = books;
+        this.characterOffsets = characterOffsets;
+        this.characterBooks = characterBooks;
+        this.bookOffsets = bookOffsets;
+        this.bookCharacters = bookCharacters;
+        checkRep();
+    }
+
+    /**
+     * Returns the number of characters in this graph.
+     *
+     * @return |this.characters|
+     */
+    public int characterCount() {
+        return characters.size();
+    }
+
+    /**
+     * Returns the number of books in this graph.
+     *
+     * @return the number of books in this.books
+     */
+    public int bookCount() {
+        return books.size();
+    }
+
+    /**
+     * Returns the number of links between a character and a book in this graph.
+     *
+     * @return the sum over the books of this.books of the number of characters in each
+     */
+    public int linkCount() {
+        return bookCharacters.length;
+    }
+
+    /**
+     * Returns true if a character is in this graph.
+     *
+     * @param character the character to look for
+     * @return true if this.characters contains character
+     */
+    public boolean containsCharacter(String character) {
+        return characters.idOf(character) != -1;
+    }
+
+    /**
+     * Returns the books a character appeared in.
+     *
+     * @throws IllegalArgumentException if character = null or this.characters does not contain it.
+     * @param character a character in this graph
+     * @return the books of this.books that character appeared in, in alphabetical order
+     */
+    public List<String> booksOf(String character) {
+        int c = idOf(character);
+        List<String> result = new ArrayList<>(characterOffsets[c + 1] - characterOffsets[c]);
+        for (int i = characterOffsets[c]; i < characterOffsets[c + 1]; i++) {
+            result.add(books.valueOf(characterBooks[i]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Finds the shortest path between two characters, where each step goes from a character to
+     * another that appeared in the same book. The path found is the same one MarvelPaths.findPath
+     * finds in the graph MarvelPaths.loadGraph builds from the same books.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.characters does not
+     * contain start and dest.
+     * @param start a character in this graph
+     * @param dest a character in this graph
+     * @return a List of DirectedLabeledEdges, each from a character to the next one labeled with the
+     * alphabetically first book they share, that represents the shortest path between start and
+     * dest, or null if there is no path.
+     */
+    public List<DirectedLabeledEdge<String, String>> findPath(String start, String dest) {
+        int startId = idOf(start);
+        int destId = idOf(dest);
+        if (startId == destId) {
+            return new ArrayList<>(); //if return is empty then its self edge.
+        }
+        //parent[c] is the character c was discovered from, or -1 if c has not been marked yet.
+        // a book is expanded by the first character dequeued that appeared in it, which marks all of
+        // its characters, so no book needs expanding twice.
+        int[] parent = new int[characters.size()];
+        Arrays.fill(parent, -1);
+        parent[startId] = startId;
+        boolean[] expanded = new boolean[books.size()];
+        int[] queue = new int[characters.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startId;
+        while (head < tail) {
+            int character = queue[head++];
+            int from = tail;
+            for (int i = characterOffsets[character]; i < characterOffsets[character + 1]; i++) {
+                int book = characterBooks[i];
+                if (expanded[book]) {
+                    continue;
+                }
+                expanded[book] = true;
+                for (int j = bookOffsets[book]; j < bookOffsets[book + 1]; j++) {
+                    int adjacent = bookCharacters[j];
+                    if (parent[adjacent] == -1) {
+                        parent[adjacent] = character;
+                        if (adjacent == destId) {
+                            return pathTo(parent, startId, destId);
+                        }
+                        queue[tail++] = adjacent;
+                    }
+                }
+            }
+            //the characters found through several books are enqueued in order of name, the order
+            // findPath visits a character's neighbors in. ids are given in order of name.
+            Arrays.sort(queue, from, tail);
+        }
+        return null; //means no path exists.
+    }
+
+    //returns the path to dest made by following parent back to start, each edge labeled with the
+    // alphabetically first book its characters share.
+    private List<DirectedLabeledEdge<String, String>> pathTo(int[] parent, int start, int dest) {
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>();
+        for (int c = dest; c != start; c = parent[c]) {
+            path.add(new DirectedLabeledEdge<>(characters.valueOf(parent[c]), characters.valueOf(c),
+                    books.valueOf(firstSharedBook(parent[c], c))));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    //returns the least id of a book both characters appeared in, merging their sorted book lists.
+    private int firstSharedBook(int a, int b) {
+        int i = characterOffsets[a];
+        int j = characterOffsets[b];
+        while (characterBooks[i] != characterBooks[j]) {
+            if (characterBooks[i] < characterBooks[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return characterBooks[i];
+    }
+
+    //returns the id of character, throwing an IllegalArgumentException if it is not in the graph.
+    private int idOf(String character) {
+        if (character == null) {
+            throw new IllegalArgumentException("Characters cannot be null.");
+        }
+        int id = characters.idOf(character);
+        if (id == -1) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        return id;
+    }
+}
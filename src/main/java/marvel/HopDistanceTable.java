@@ -0,0 +1,310 @@
+package marvel;
+
+import graph.CompactGraph;
+import graph.DirectedLabeledEdge;
+import graph.DirectionOptimizingBFS;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * <b>HopDistanceTable</b> is an immutable table of the number of edges on a shortest path, the hop
+ * distance, between every pair of characters in a compact marvel graph. It is built by running a
+ * breadth-first search from every character, in parallel across cores, and holds one byte per
+ * pair, so distance questions are answered with a single lookup and shortest paths are rebuilt by
+ * walking the table instead of searching the graph.
+ *
+ * <p>A table can be saved to a file and loaded again by memory-mapping that file, so a process
+ * that only answers queries can use a table without building it and without reading it all into
+ * memory. The file records a checksum of the graph's characters and edges, and a table is only
+ * loaded for the graph it was built from.
+ *
+ * @spec.specfield graph: CompactGraph. The graph the distances are measured in
+ * @spec.specfield <br>distance: function. The hop distance from each character of graph to each
+ * other, or -1 if there is no path between them
+ */
+
+public final class HopDistanceTable {
+
+    /** The byte stored for a pair of characters with no path between them. */
+    private static final int UNREACHABLE = 0xFF;
+    /** Marks the start of a saved table. */
+    private static final int MAGIC = 0x48445431;
+    /** The bytes of a saved table before the distances: magic, node count and graph checksum. */
+    private static final int HEADER = 16;
+
+    private final CompactGraph<String, String> graph;
+    private final ByteBuffer distances;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // graph is this.graph, and for characters with ids a and b, distance(a, b) is the unsigned byte
+    // at distances[a * n + b], where n = graph.nodeCount(), or -1 if that byte is UNREACHABLE.
+
+    // RepInvariant:
+    // graph != null && distances != null && graph.isSorted() &&
+    // distances.capacity() == graph.nodeCount() * graph.nodeCount() &&
+    // for each id a, the byte at distances[a * n + a] is 0
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (graph != null && distances != null && graph.isSorted());
+            int n = graph.nodeCount();
+            assert (distances.capacity() == n * n);
+            for (int a = 0; a < n; a++) {
+                assert (distances.get(a * n + a) == 0);
+            }
+        }
+    }
+
+    //creates a table over the distances of graph, laid out row by row.
+    private HopDistanceTable(CompactGraph<String, String> graph, ByteBuffer distances) {
+        this.graph = graph;
+        this.distances = distances;
+        checkRep();
+    }
+
+    /**
+     * Builds the table of hop distances between every pair of characters in a graph, searching
+     * from each character on its own thread of the common fork-join pool.
+     *
+     * @throws IllegalArgumentException if graph = null, graph was not built by
+     * MarvelPaths.compactGraph, graph has too many characters to give every pair a byte, or two
+     * characters are more than 254 edges apart.
+     * @param graph the graph, built by MarvelPaths.compactGraph, to measure distances in
+     * @return a new HopDistanceTable with this.graph = graph
+     */
+    public static HopDistanceTable build(CompactGraph<String, String> graph) {
+        checkGraph(graph);
+        int n = graph.nodeCount();
+        byte[] table = new byte[n * n];
+        IntStream.range(0, n).parallel().forEach(source -> {
+            int[] distance = DirectionOptimizingBFS.distances(graph, source, -1);
+            int row = source * n;
+            for (int node = 0; node < n; node++) {
+                if (distance[node] >= UNREACHABLE) {
+                    throw new IllegalArgumentException("Graph has characters more than 254 edges apart.");
+                }
+                table[row + node] = (byte) (distance[node] == -1 ? UNREACHABLE : distance[node]);
+            }
+        });
+        return new HopDistanceTable(graph, ByteBuffer.wrap(table));
+    }
+
+    /**
+     * Loads a table saved by save, memory-mapping the file instead of reading it.
+     *
+     * @throws IllegalArgumentException if graph = null, file = null, graph was not built by
+     * MarvelPaths.compactGraph, or file does not hold a table built for graph.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @param graph the graph, built by MarvelPaths.compactGraph, the table was built for
+     * @param file the file the table was saved to
+     * @return a new HopDistanceTable with this.graph = graph and the distances saved in file
+     */
+    public static HopDistanceTable load(CompactGraph<String, String> graph, Path file) {
+        checkGraph(graph);
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        int n = graph.nodeCount();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER + (long) n * n) {
+                throw new IllegalArgumentException(file + " does not hold a table for this graph.");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != MAGIC || header.getInt() != n || header.getLong() != checksum(graph)) {
+                throw new IllegalArgumentException(file + " does not hold a table for this graph.");
+            }
+            //a mapping stays valid after its channel is closed.
+            return new HopDistanceTable(graph, channel.map(FileChannel.MapMode.READ_ONLY, HEADER, (long) n * n));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the table saved in a file if it was built for a graph, and otherwise builds the table and
+     * saves it to that file. The file is only a cache: if it cannot be read the table is built, and
+     * if it cannot be written the built table is returned unsaved.
+     *
+     * @throws IllegalArgumentException if graph = null, file = null, or graph cannot be tabled by build.
+     * @param graph the graph, built by MarvelPaths.compactGraph, to measure distances in
+     * @param file the file the table is kept in
+     * @return a HopDistanceTable with this.graph = graph
+     */
+    public static HopDistanceTable loadOrBuild(CompactGraph<String, String> graph, Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        if (Files.exists(file)) {
+            try {
+                return load(graph, file);
+            } catch (IllegalArgumentException e) {
+                checkGraph(graph);
+                //the file holds a table for some other graph, so it is rebuilt below.
+            } catch (UncheckedIOException e) {
+                //the file cannot be read, so it is rebuilt below.
+            }
+        }
+        HopDistanceTable table = build(graph);
+        try {
+            table.save(file);
+        } catch (UncheckedIOException e) {
+            //the file cannot be written, such as from a read-only directory, so the table is only used,
+            // not cached.
+        }
+        return table;
+    }
+
+    /**
+     * Saves this table to a file that load can map.
+     *
+     * @throws IllegalArgumentException if file = null.
+     * @throws UncheckedIOException if the file cannot be written.
+     * @param file the file to save this table to, which is replaced if it already exists, and whose
+     *             directory is created if it does not exist
+     */
+    public void save(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(graph.nodeCount()).putLong(checksum(graph)).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            ByteBuffer body = distances.duplicate();
+            body.clear();
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the graph this table measures distances in.
+     *
+     * @return this.graph
+     */
+    public CompactGraph<String, String> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the hop distance between two characters.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.graph does not contain
+     * start and dest.
+     * @param start a character node in the graph
+     * @param dest a character node in the graph
+     * @return the number of edges on a shortest path from start to dest, or -1 if there is no path.
+     */
+    public int distance(String start, String dest) {
+        return distance(idOf(start), idOf(dest));
+    }
+
+    /**
+     * Finds the shortest path between two characters by walking this table: from each character on
+     * the path, it takes the first edge to a neighbor one step closer to dest. The path found is the
+     * same one MarvelPaths.findPath finds.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.graph does not contain
+     * start and dest.
+     * @param start a character node in the graph
+     * @param dest a character node in the graph
+     * @return a List of DirectedLabeledEdges that represents the shortest path between start and
+     * dest nodes in the graph, or null if there is no path.
+     */
+    public List<DirectedLabeledEdge<String, String>> findPath(String start, String dest) {
+        int node = idOf(start);
+        int destId = idOf(dest);
+        int remaining = distance(node, destId);
+        if (remaining == -1) {
+            return null; //means no path exists.
+        }
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>(remaining);
+        //neighbors are stored in order of name, each reached by its alphabetically first book, so the
+        // first one that is one step closer is where findPath goes. the graph is symmetric, so the
+        // distance from a neighbor to dest is read from dest's row.
+        while (remaining > 0) {
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int next = graph.target(edge);
+                if (distance(destId, next) == remaining - 1) {
+                    path.add(graph.edge(node, edge));
+                    node = next;
+                    remaining--;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    //returns the distance from the character with id a to the one with id b, or -1 if there is no path.
+    private int distance(int a, int b) {
+        int value = distances.get(a * graph.nodeCount() + b) & 0xFF;
+        return (value == UNREACHABLE) ? -1 : value;
+    }
+
+    //returns the id of character, throwing an IllegalArgumentException if it is not in the graph.
+    private int idOf(String character) {
+        if (character == null) {
+            throw new IllegalArgumentException("Characters cannot be null.");
+        }
+        int id = graph.idOf(character);
+        if (id == -1) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        return id;
+    }
+
+    //throws an IllegalArgumentException if graph cannot be tabled.
+    private static void checkGraph(CompactGraph<String, String> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        } else if (!graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        } else if ((long) graph.nodeCount() * graph.nodeCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph has too many characters to table every pair.");
+        }
+    }
+
+    //returns a checksum of the characters of graph in id order and of the targets of its entries, so
+    // a saved table is only loaded for the graph it was built from.
+    private static long checksum(CompactGraph<String, String> graph) {
+        CRC32 crc = new CRC32();
+        ByteBuffer ints = ByteBuffer.allocate(4);
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            crc.update(graph.node(node).getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                ints.clear();
+                ints.putInt(graph.target(edge)).flip();
+                crc.update(ints);
+            }
+        }
+        return crc.getValue();
+    }
+}
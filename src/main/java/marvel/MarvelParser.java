@@ -10,11 +10,11 @@
  */
 
 package marvel;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
-import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -30,38 +30,92 @@ public class MarvelParser {
     // Abstract description: MarvelParser is a function that parses data from TSV files into maps.
 
   /**
-   * Reads a dataset from a file. Each line of the input file contains a character name and a
-   * comic book the character appeared in, separated by a tab character
+   * Reads a dataset from a file. The first line of the file is a header naming its columns, which
+   * must include hero and book, and each following line contains a character name and a comic
+   * book the character appeared in, separated by a tab character. Whitespace at the start of
+   * each field is ignored, and so are blank lines.
    *
-   * @spec.requires filename is a valid file path
+   * <p>The file is streamed one line at a time and split on tabs by hand, so loading a large file
+   * costs one pass over its characters.
+   *
+   * @throws IllegalArgumentException if filename = null, the header has no hero or book column, or
+   * a line has fewer fields than the header.
+   * @throws UncheckedIOException if the file cannot be read.
    * @param filename the file that will be parsed
    * @return a Map that maps each comic book to a list of characters that appeared in that comic book.
    */
   public static Map<String, List<String>> parseData(String filename) {
+      if (filename == null) {
+          throw new IllegalArgumentException("Filename cannot be null.");
+      }
       Map<String, List<String>> books = new HashMap<>();
-      try {
-          Reader reader = Files.newBufferedReader(Paths.get(filename));
-          CsvToBean<MarvelModel> tsvToBean = new CsvToBeanBuilder<MarvelModel>(reader)
-                  .withType(MarvelModel.class)
-                 .withSeparator('\t')
-                 .withIgnoreLeadingWhiteSpace(true)
-                 .build();
-
-          Iterator<MarvelModel> tsvMarvelIterator = tsvToBean.iterator();
+      //each name is read into a new String on every line it appears on, so names are interned to
+      // share one instance. equal names are then the same object, and the graph's hash lookups on
+      // them end at the identity check instead of comparing characters. each name maps to itself.
+      Map<String, String> names = new HashMap<>();
+      try (BufferedReader reader = Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8)) {
+          String header = reader.readLine();
+          if (header == null) {
+              return books; //an empty file has no books.
+          }
+          List<String> columns = split(header);
+          int heroColumn = indexOf(columns, "hero");
+          int bookColumn = indexOf(columns, "book");
+          if (heroColumn == -1 || bookColumn == -1) {
+              throw new IllegalArgumentException(filename + ": header must name a hero and a book column.");
+          }
+          int lineNumber = 1;
+          String line;
           //while the file still has more tab-separated values to parse
-          while (tsvMarvelIterator.hasNext()) {
-              MarvelModel tsvMarvel = tsvMarvelIterator.next();
-              String name = tsvMarvel.getHero();
-              String book = tsvMarvel.getBook();
-              //adds the book to the book map if it doesn't already exist
-              if (!books.containsKey(book)) {
-                  books.put(book, new ArrayList<String>());
+          while ((line = reader.readLine()) != null) {
+              lineNumber++;
+              if (line.trim().isEmpty()) {
+                  continue;
+              }
+              List<String> fields = split(line);
+              if (fields.size() < columns.size()) {
+                  throw new IllegalArgumentException(filename + ":" + lineNumber + ": expected "
+                          + columns.size() + " tab-separated fields but found " + fields.size() + ".");
               }
-              books.get(book).add(name);
+              String name = names.computeIfAbsent(fields.get(heroColumn), first -> first);
+              String book = names.computeIfAbsent(fields.get(bookColumn), first -> first);
+              //adds the book to the book map if it doesn't already exist
+              books.computeIfAbsent(book, title -> new ArrayList<>()).add(name);
           }
-    } catch(IOException e) {
-      e.printStackTrace();
+      } catch (IOException e) {
+          throw new UncheckedIOException("Cannot read " + filename, e);
       }
       return books;
   }
+
+  //splits line on tabs, dropping the whitespace at the start of each field.
+  private static List<String> split(String line) {
+      List<String> fields = new ArrayList<>(2);
+      int start = 0;
+      while (true) {
+          int end = line.indexOf('\t', start);
+          if (end == -1) {
+              end = line.length();
+          }
+          int from = start;
+          while (from < end && Character.isWhitespace(line.charAt(from))) {
+              from++;
+          }
+          fields.add(line.substring(from, end));
+          if (end == line.length()) {
+              return fields;
+          }
+          start = end + 1;
+      }
+  }
+
+  //returns the index of the column named name, ignoring case and surrounding whitespace, or -1.
+  private static int indexOf(List<String> columns, String name) {
+      for (int i = 0; i < columns.size(); i++) {
+          if (columns.get(i).trim().equalsIgnoreCase(name)) {
+              return i;
+          }
+      }
+      return -1;
+  }
 }
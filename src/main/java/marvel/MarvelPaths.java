@@ -1,8 +1,25 @@
 package marvel;
 
+import graph.CompactGraph;
 import graph.DirectedGraph;
 import graph.DirectedLabeledEdge;
+import graph.DirectionOptimizingBFS;
+import graph.Graph;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 public class MarvelPaths {
 
 
@@ -18,12 +35,38 @@ public class MarvelPaths {
     // Abstract description: MarvelPaths is a function to find the shortest path between
     // two nodes in a graph.
 
+    /** The number of queries findPathsBatch reads and answers at a time. */
+    public static final int BATCH_SIZE = 1 << 16;
+
+    /** The file main keeps the snapshot of the Marvel graph in, so the dataset is only parsed once. */
+    private static final Path SNAPSHOT_FILE = Paths.get("build/marvel/marvel.snapshot");
+
+    /**
+     * Runs the Marvel program. With no arguments it asks for pairs of characters and prints the
+     * shortest path between each. With the arguments --batch [file], it answers the queries in file,
+     * or on standard input if no file is given, with findPathsBatch and prints the results.
+     *
+     * @param args the arguments to the program
+     */
     public static void main(String[] args) {
 
         try {
-            Scanner console = new Scanner(System.in);
             String marvelFile = "src/main/resources/marvel/data/marvel.tsv";
-            DirectedGraph<String, String> graph = MarvelPaths.loadGraph(marvelFile);
+            if (args.length > 0 && args[0].equals("--batch")) {
+                CompactGraph<String, String> graph = MarvelSnapshot.loadOrBuild(Paths.get(marvelFile),
+                        SNAPSHOT_FILE);
+                try (BufferedReader input = (args.length > 1)
+                        ? Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)
+                        : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+                    findPathsBatch(graph, input, System.out, Runtime.getRuntime().availableProcessors());
+                }
+                return;
+            }
+            Scanner console = new Scanner(System.in);
+            //names are interned to int ids once here, so each search only walks int arrays. the graph
+            // is kept in a snapshot between runs, and only rebuilt when marvel.tsv changes.
+            CompactGraph<String, String> graph = MarvelSnapshot.loadOrBuild(Paths.get(marvelFile),
+                    SNAPSHOT_FILE);
             System.out.println("Enter two character names to find the shortest path between them.");
             boolean continueProgram = true;
             while (continueProgram) {
@@ -35,13 +78,13 @@ public class MarvelPaths {
                     System.out.println("No path exists because the graph doesn't contain both the " +
                             "starting character and the ending character.");
                 } else {
-                    List<DirectedLabeledEdge<String, String>> path = MarvelPaths.findPath(graph, start, dest);
-                    if (path.size() == 0) {
-                        System.out.println("No path exists from " + start + " to themselves.");
-                    }
-                    else if (path == null) {
+                    List<DirectedLabeledEdge<String, String>> path = MarvelPaths.findPathCompact(graph, start, dest);
+                    if (path == null) {
                         System.out.println("No path exists between " + start + " and " + dest + " in " +
                                 "the graph.");
+                    }
+                    else if (path.size() == 0) {
+                        System.out.println("No path exists from " + start + " to themselves.");
                     } else {
                         System.out.println("The shortest path from  " + start + " to " + dest + " is:");
                         for (DirectedLabeledEdge edge: path) {
@@ -68,38 +111,75 @@ public class MarvelPaths {
      * Builds a graph from the data in the file.  the Marvel Universe dataset.
      *
      * @spec.requires filename is a valid file path
-     * @throws IllegalArgumentException if filename == null.
+     * @throws IllegalArgumentException if filename == null, or the file is malformed.
+     * @throws java.io.UncheckedIOException if the file cannot be read.
      * @param filename the name of the file that the graph is built from.
      * @return a DirectedGraph that maps each character, Char1, to a list of DirectedLabeledEdges,
      * ⟨Char1,Char2, book) that each indicate Char1 appeared in a comic book that Char2 also
-     * appeared in.
+     * appeared in. The edges of each character are listed in the order findPath visits them.
      */
     public static DirectedGraph<String, String> loadGraph(String filename) {
         if (filename == null ) {
             throw new IllegalArgumentException("Filename cannot be null.");
         }
         Map<String, List<String>> books = MarvelParser.parseData(filename);
-        DirectedGraph<String, String> graph = new DirectedGraph<>();
-        //then go through each book in the books map
-        for (String book : books.keySet()) {
-            if (book != null) {
-                //get the list of all the characters in that book.
-                List<String> bookCharacters = books.get(book);
-                //then make edges connecting all of those characters both ways.
-                for (int i = 0; i < bookCharacters.size(); i++) {
-                    graph.addNode(bookCharacters.get(i));
-                    for (int j = 0; j < bookCharacters.size(); j++) {
-                        //no reflexive edges
-                        if (!(bookCharacters.get(i).equals(bookCharacters.get(j)))) {
-                            graph.addNode(bookCharacters.get(j));
-                            graph.addEdge(new DirectedLabeledEdge<>(bookCharacters.get(i), bookCharacters.get(j), book));
-                            graph.addEdge(new DirectedLabeledEdge<>(bookCharacters.get(j), bookCharacters.get(i), book));
-                        }
-                    }
-                }
+        //the edges of each book are made on the common ForkJoinPool, one book per task, and then
+        // handed to the builder on this thread.
+        List<List<DirectedLabeledEdge<String, String>>> bookEdges = books.entrySet().parallelStream()
+                .map(book -> edgesOf(book.getKey(), book.getValue()))
+                .collect(Collectors.toList());
+        //the builder drops duplicate edges itself, so edges are added without checking the graph first.
+        // it sorts each character's edges once, in the order findPath visits them.
+        Set<String> characters = new HashSet<>();
+        for (List<String> bookCharacters : books.values()) {
+            characters.addAll(bookCharacters);
+        }
+        DirectedGraph.Builder<String, String> graph =
+                new DirectedGraph.Builder<>(characters.size(), false, EDGE_ORDER);
+        graph.addNodes(characters);
+        for (List<DirectedLabeledEdge<String, String>> edges : bookEdges) {
+            graph.addEdges(edges);
+        }
+        return graph.build();
+    }
+
+    /**
+     * Builds the bipartite graph of characters and books from the data in the file, which takes
+     * memory linear in the size of the file instead of joining every pair of characters in a book.
+     *
+     * @spec.requires filename is a valid file path
+     * @throws IllegalArgumentException if filename == null, or the file is malformed.
+     * @throws java.io.UncheckedIOException if the file cannot be read.
+     * @param filename the name of the file that the graph is built from.
+     * @return a BookGraph joining each character to the books they appeared in, whose findPath finds
+     * the same paths findPath finds in the graph loadGraph builds from filename.
+     */
+    public static BookGraph loadBookGraph(String filename) {
+        if (filename == null ) {
+            throw new IllegalArgumentException("Filename cannot be null.");
+        }
+        return BookGraph.build(MarvelParser.parseData(filename));
+    }
+
+    //returns the edges connecting every pair of characters in a book both ways, labeled with the book.
+    // a character listed twice in a book is only paired once, and each pair is visited once and
+    // given both of its edges, so a book of k characters makes exactly k * (k - 1) edges. the edges
+    // are laid out grouped by src, the order the builder adds them to each character fastest.
+    private static List<DirectedLabeledEdge<String, String>> edgesOf(String book, List<String> bookCharacters) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(bookCharacters));
+        int k = distinct.size();
+        @SuppressWarnings("unchecked")
+        DirectedLabeledEdge<String, String>[] edges = new DirectedLabeledEdge[k * (k - 1)];
+        for (int i = 0; i < k; i++) {
+            String first = distinct.get(i);
+            for (int j = i + 1; j < k; j++) {
+                String second = distinct.get(j);
+                //the edges from first fill slots [i * (k - 1), (i + 1) * (k - 1)), skipping first itself.
+                edges[i * (k - 1) + j - 1] = new DirectedLabeledEdge<>(first, second, book);
+                edges[j * (k - 1) + i] = new DirectedLabeledEdge<>(second, first, book);
             }
         }
-        return graph;
+        return Arrays.asList(edges);
     }
 
     /**
@@ -113,7 +193,7 @@ public class MarvelPaths {
      * @return a List of DirectedLabeledEdges that represents the shortest path between start and
      * dest nodes in the graph.
      */
-    public static  List<DirectedLabeledEdge<String, String>> findPath(DirectedGraph<String, String> graph, String start, String dest) {
+    public static  List<DirectedLabeledEdge<String, String>> findPath(Graph<String, String> graph, String start, String dest) {
         if (graph == null || start == null || dest == null) {
             throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
         }
@@ -121,36 +201,30 @@ public class MarvelPaths {
         if (!(graph.containsNode(start) && graph.containsNode(dest))) {
             throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
         }
-        Map<String, List<DirectedLabeledEdge<String, String>>> paths = new HashMap<>();
-        paths.put(start, new ArrayList<>());
-        Queue<String> queue = new LinkedList<String>(); //better than array list for add/remove so we use linked list
+        //via maps each marked node to the edge it was discovered along, so a path is only built once
+        // dest is reached, by following the edges back to start. start is marked with no edge.
+        Map<String, DirectedLabeledEdge<String, String>> via = new HashMap<>();
+        via.put(start, null);
+        if (start.equals(dest)) {
+            return new ArrayList<>(); //if return is empty then its self edge.
+        }
+        Queue<String> queue = new ArrayDeque<>();
         queue.add(start); //initialize queue to hold start
         //{inv: distance(n_1) ≤ ... ≤ distance(n_r), where n_1,...,n_r are the vertices in the queue at the current
         // iteration and distance(n_i) is the length of the shortest path from start node to the node n_i.
         while (!queue.isEmpty() ) { //while queue is not empty and we haven't found it.
             String nextNode = queue.remove(); //process next node
-            if (nextNode.equals(dest)) {
-                //List<LabeledEdge<String, String>> path = paths.get(character);
-                //return new ArrayList<LabeledEdge<String, String>>(path);
-              //  List<DirectedLabeledEdge<String, String>> path = paths.get(nextNode);
-               // return new ArrayList<DirectedLabeledEdge<String, String>>(path);
-                return new ArrayList<>(paths.get(nextNode)); //if return is empty then its self edge.
-            }
-            //new TreeSet that implements the sorting of the test script file so in the for-each loop, visit
-            // edges in increasing order of m's character name
-            Set<DirectedLabeledEdge<String, String>> sortedEdges = new TreeSet<>(new EdgeComparator());
-            //adds all of the children nodes to this edges set but in order specified by comparator.
-            sortedEdges.addAll( graph.listChildren(nextNode));
-            //for each outgoing edge of nextNode, (each adjacent node to nextNode)
-            for (DirectedLabeledEdge<String, String> edge : sortedEdges) {
+            //for each outgoing edge of nextNode, (each adjacent node to nextNode), in increasing order
+            // of m's character name, as the test script files expect.
+            for (DirectedLabeledEdge<String, String> edge : sortedChildren(graph, nextNode)) {
                 String adjacentNode = edge.getDest(); //this gets the adjacent node from the edge
                 //if the adjacent node has not already been marked,
-                if (!(paths.containsKey(adjacentNode)) ) {
-
-                    List<DirectedLabeledEdge<String, String>> newPath = paths.get(nextNode);
-                    List<DirectedLabeledEdge<String, String>> newPath1 = new ArrayList<>(newPath);
-                    newPath1.add(edge);
-                    paths.put(adjacentNode, newPath1); //mark the adjacentNode .
+                if (!(via.containsKey(adjacentNode)) ) {
+                    via.put(adjacentNode, edge); //mark the adjacentNode .
+                    //the first edge to reach dest completes the path the queue would dequeue it with.
+                    if (adjacentNode.equals(dest)) {
+                        return pathTo(via, dest);
+                    }
                     queue.add(adjacentNode); //enqueue the adjacentNode
                 }
             }
@@ -159,6 +233,511 @@ public class MarvelPaths {
     }
 
 
+    /**
+     * Finds the shortest path between two characters in a graph by searching from both ends at once.
+     * Each step expands every node of whichever frontier is smaller by one level, until the two
+     * searches meet, so in a small-world graph like the marvel graph far fewer nodes are visited
+     * than by findPath. The path found is the same one findPath finds: among all shortest paths,
+     * the one whose sequence of character names is alphabetically first, taking the alphabetically
+     * first book between each pair of characters.
+     *
+     * @spec.requires graph contains start and dest nodes, and for each edge in graph, graph contains
+     * the edge in the other direction with the same label, as graphs built by loadGraph do.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null.
+     * @param graph the graph that is used to find the shortest distance between characters.
+     * @param start a character node in the graph
+     * @param dest a character node in the graph
+     * @return a List of DirectedLabeledEdges that represents the shortest path between start and
+     * dest nodes in the graph, or null if there is no path.
+     */
+    public static List<DirectedLabeledEdge<String, String>> findPathBidirectional(Graph<String, String> graph,
+                                                                                  String start, String dest) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        if (start.equals(dest)) {
+            return new ArrayList<>();
+        }
+        //fromStart and toDest map each node reached from either end to its distance from that end.
+        // levels holds the nodes found from start, by distance, since the path is rebuilt from start.
+        Map<String, Integer> fromStart = new HashMap<>();
+        Map<String, Integer> toDest = new HashMap<>();
+        List<List<String>> levels = new ArrayList<>();
+        fromStart.put(start, 0);
+        toDest.put(dest, 0);
+        levels.add(Collections.singletonList(start));
+        List<String> destFrontier = Collections.singletonList(dest);
+        int distance = -1;
+        while (distance == -1) {
+            List<String> startFrontier = levels.get(levels.size() - 1);
+            if (startFrontier.isEmpty() || destFrontier.isEmpty()) {
+                return null; //means no path exists.
+            }
+            //expands the smaller frontier by one level, and stops once it reaches the other search.
+            List<String> next;
+            Map<String, Integer> other;
+            if (startFrontier.size() <= destFrontier.size()) {
+                next = expand(graph, startFrontier, fromStart, levels.size());
+                levels.add(next);
+                other = toDest;
+            } else {
+                next = expand(graph, destFrontier, toDest, toDest.get(destFrontier.get(0)) + 1);
+                destFrontier = next;
+                other = fromStart;
+            }
+            for (String node : next) {
+                if (other.containsKey(node)) {
+                    int length = fromStart.get(node) + toDest.get(node);
+                    distance = (distance == -1) ? length : Math.min(distance, length);
+                }
+            }
+        }
+        //a node found from start at distance k is on a shortest path if it is at distance - k from
+        // dest. where the search from dest didn't get that far, it is on one if a node it leads to at
+        // distance k + 1 from start is, so those are found level by level back from the last one.
+        int destDepth = toDest.get(destFrontier.get(0));
+        Set<String> onPath = new HashSet<>();
+        for (int k = levels.size() - 1; k >= 0; k--) {
+            for (String node : levels.get(k)) {
+                if (distance - k <= destDepth) {
+                    if (Integer.valueOf(distance - k).equals(toDest.get(node))) {
+                        onPath.add(node);
+                    }
+                } else {
+                    for (DirectedLabeledEdge<String, String> edge : graph.listChildren(node)) {
+                        if (onPath.contains(edge.getDest()) && fromStart.get(edge.getDest()) == k + 1) {
+                            onPath.add(node);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        //walks from start, each time taking the first edge in findPath's order that stays on a
+        // shortest path, which gives the alphabetically first one.
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>(distance);
+        String node = start;
+        for (int k = 0; k < distance; k++) {
+            for (DirectedLabeledEdge<String, String> edge : sortedChildren(graph, node)) {
+                String next = edge.getDest();
+                boolean onShortestPath = (k + 1 < levels.size())
+                        ? onPath.contains(next) && fromStart.get(next) == k + 1
+                        : Integer.valueOf(distance - k - 1).equals(toDest.get(next));
+                if (onShortestPath) {
+                    path.add(edge);
+                    node = next;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    //marks every unmarked child of the nodes in frontier with distance in marked, and returns them.
+    private static List<String> expand(Graph<String, String> graph, List<String> frontier,
+                                       Map<String, Integer> marked, int distance) {
+        List<String> next = new ArrayList<>();
+        for (String node : frontier) {
+            for (DirectedLabeledEdge<String, String> edge : graph.listChildren(node)) {
+                if (!marked.containsKey(edge.getDest())) {
+                    marked.put(edge.getDest(), distance);
+                    next.add(edge.getDest());
+                }
+            }
+        }
+        return next;
+    }
+
+    //returns the out-bound edges of node in increasing order of dest name and then label. a graph
+    // built by loadGraph already lists them in that order, and any other graph has them sorted into
+    // a new TreeSet.
+    private static Set<DirectedLabeledEdge<String, String>> sortedChildren(Graph<String, String> graph,
+                                                                           String node) {
+        if (graph.childOrder() == EDGE_ORDER) {
+            return graph.listChildren(node);
+        }
+        Set<DirectedLabeledEdge<String, String>> sortedEdges = new TreeSet<>(EDGE_ORDER);
+        //adds all of the children nodes to this edges set but in order specified by comparator.
+        sortedEdges.addAll(graph.listChildren(node));
+        return sortedEdges;
+    }
+
+    //returns the path to dest made of the edges in via, from the node via maps to no edge.
+    private static List<DirectedLabeledEdge<String, String>> pathTo(
+            Map<String, DirectedLabeledEdge<String, String>> via, String dest) {
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>();
+        for (DirectedLabeledEdge<String, String> edge = via.get(dest); edge != null; edge = via.get(edge.getSrc())) {
+            path.add(edge);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Copies a graph built by loadGraph into a sorted CompactGraph, which interns each character and
+     * book to an int id given in alphabetical order and stores the neighbors of each character in
+     * alphabetical order, so findPathCompact can search it without hashing or comparing a single
+     * name. Characters who share several books are joined by a single entry listing those books,
+     * so each neighbor is expanded once.
+     *
+     * @throws IllegalArgumentException if graph = null.
+     * @param graph the graph to be compacted.
+     * @return a CompactGraph with the same nodes and edges as graph.
+     */
+    public static CompactGraph<String, String> compactGraph(DirectedGraph<String, String> graph) {
+        return CompactGraph.sorted(graph);
+    }
+
+    /**
+     * Finds the shortest path between two characters in a compact graph. The path found is the same
+     * one findPath finds on the DirectedGraph the compact graph was built from.
+     *
+     * @spec.requires graph contains start and dest nodes.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null, or graph was not
+     * built by compactGraph.
+     * @param graph the compact graph, built by compactGraph, that is used to find the shortest distance
+     *              between characters.
+     * @param start a character node in the graph
+     * @param dest a character node in the graph
+     * @return a List of DirectedLabeledEdges that represents the shortest path between start and
+     * dest nodes in the graph, or null if there is no path.
+     */
+    public static List<DirectedLabeledEdge<String, String>> findPathCompact(CompactGraph<String, String> graph,
+                                                                            String start, String dest) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        if (!graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        }
+        //if either src or dest node are not in the graph, there can be no path
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        SearchSpace space = SEARCH_SPACE.get();
+        if (!search(graph, startId, destId, space)) {
+            return null; //means no path exists.
+        }
+        return pathTo(graph, space, startId, destId);
+    }
+
+    /**
+     * Finds the shortest paths from one character to each of several others in a compact graph, with
+     * a single breadth-first search from start. Each path found is the same one findPathCompact finds.
+     *
+     * @throws IllegalArgumentException if graph = null, start = null, dests = null, graph was not
+     * built by compactGraph, or graph does not contain start and every dest.
+     * @param graph the compact graph, built by compactGraph, that is used to find the shortest distance
+     *              between characters.
+     * @param start a character node in the graph
+     * @param dests character nodes in the graph
+     * @return a List holding, for each dest in dests in order, a List of DirectedLabeledEdges that
+     * represents the shortest path from start to dest, or null if there is no path.
+     */
+    public static List<List<DirectedLabeledEdge<String, String>>> findPathsFrom(
+            CompactGraph<String, String> graph, String start, List<String> dests) {
+        if (graph == null || start == null || dests == null) {
+            throw new IllegalArgumentException("Graph, start, and dests cannot be null.");
+        }
+        if (!graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        }
+        int[] destIds = new int[dests.size()];
+        for (int i = 0; i < dests.size(); i++) {
+            destIds[i] = graph.idOf(dests.get(i));
+            if (destIds[i] == -1) {
+                throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+            }
+        }
+        int startId = graph.idOf(start);
+        if (startId == -1) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        SearchSpace space = SEARCH_SPACE.get();
+        //a single dest is found the way findPathCompact finds it, stopping as soon as it is reached.
+        search(graph, startId, (destIds.length == 1) ? destIds[0] : -1, space);
+        List<List<DirectedLabeledEdge<String, String>>> paths = new ArrayList<>(dests.size());
+        for (int destId : destIds) {
+            paths.add(space.marked(destId) ? pathTo(graph, space, startId, destId) : null);
+        }
+        return paths;
+    }
+
+    //searches graph breadth-first from startId, recording in space the node each node was discovered
+    // from and the entry it was discovered along. stops once destId is dequeued, or searches the
+    // whole graph if destId is -1. returns true if destId was reached.
+    private static boolean search(CompactGraph<String, String> graph, int startId, int destId,
+                                  SearchSpace space) {
+        space.reset(graph.nodeCount());
+        int[] queue = space.queue;
+        int head = 0;
+        int tail = 0;
+        space.mark(startId, startId, -1);
+        queue[tail++] = startId;
+        while (head < tail) {
+            int nextNode = queue[head++];
+            if (nextNode == destId) {
+                return true;
+            }
+            //neighbors are already stored in order of name, and each is reached by its alphabetically
+            // first book, so they are visited the same way the TreeSet in findPath visits them.
+            for (int edge = graph.firstEdge(nextNode); edge < graph.endEdge(nextNode); edge++) {
+                int adjacentNode = graph.target(edge);
+                if (!space.marked(adjacentNode)) {
+                    space.mark(adjacentNode, nextNode, edge);
+                    queue[tail++] = adjacentNode;
+                }
+            }
+        }
+        return false;
+    }
+
+    //returns the path to destId made by following the parents and edges in space back to startId.
+    private static List<DirectedLabeledEdge<String, String>> pathTo(CompactGraph<String, String> graph,
+                                                                    SearchSpace space,
+                                                                    int startId, int destId) {
+        int length = 0;
+        for (int node = destId; node != startId; node = space.parent[node]) {
+            length++;
+        }
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>(Collections.nCopies(length, null));
+        for (int node = destId; node != startId; node = space.parent[node]) {
+            path.set(--length, graph.edge(space.parent[node], space.via[node]));
+        }
+        return path;
+    }
+
+    /**
+     * Answers a batch of path queries, one per line of input, each a starting and an ending character
+     * separated by a tab, and writes one line of results to output per query, in the order the
+     * queries were read. Each result line holds the two characters, the number of edges on the path,
+     * or -1 if there is none, and then each edge of the path as "A to B via book", all separated by
+     * tabs. A query naming a character not in the graph gets "unknown character" and that name in
+     * place of the path. A line that is not two tab-separated fields gets "malformed query" and its
+     * line number in place of the whole result line. Blank lines are skipped.
+     *
+     * <p>Queries are read in blocks of BATCH_SIZE. The queries of a block that share a starting
+     * character are answered together by one call to findPathsFrom, with the starting characters
+     * spread across threads, and a block is written out while the next one is being answered.
+     *
+     * @throws IllegalArgumentException if graph = null, input = null, output = null, threads &lt; 1,
+     * or graph was not built by compactGraph.
+     * @throws java.io.UncheckedIOException if input cannot be read.
+     * @param graph the compact graph, built by compactGraph, that is used to find the shortest distance
+     *              between characters.
+     * @param input the queries
+     * @param output where the results are written to
+     * @param threads the number of threads to answer queries on
+     * @spec.modifies output
+     * @spec.effects writes one line to output for each query in input
+     */
+    public static void findPathsBatch(CompactGraph<String, String> graph, BufferedReader input,
+                                      PrintStream output, int threads) {
+        if (graph == null || input == null || output == null || threads < 1) {
+            throw new IllegalArgumentException("Graph, input, and output cannot be null, and threads must be positive.");
+        }
+        if (!graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            int lineNumber = 0;
+            //writes the block being answered, once the next block is submitted.
+            Runnable pending = null;
+            while (true) {
+                List<String[]> queries = new ArrayList<>(BATCH_SIZE);
+                //the result line of each malformed line of the block, by its position among the result
+                // lines of the block, so the queries around it are still answered and written in order.
+                Map<Integer, String> malformed = new HashMap<>();
+                String line;
+                while (queries.size() + malformed.size() < BATCH_SIZE && (line = input.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    String[] query = line.split("\t", -1);
+                    if (query.length == 2) {
+                        queries.add(query);
+                    } else {
+                        malformed.put(queries.size() + malformed.size(), "malformed query\tline " + lineNumber);
+                    }
+                }
+                Runnable submitted = null;
+                if (!queries.isEmpty() || !malformed.isEmpty()) {
+                    String[] results = new String[queries.size()];
+                    List<Future<?>> tasks = submitBlock(graph, queries, results, pool);
+                    submitted = () -> writeBlock(tasks, results, malformed, output);
+                }
+                if (pending != null) {
+                    pending.run();
+                }
+                if (submitted == null) {
+                    break;
+                }
+                pending = submitted;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+        output.flush();
+    }
+
+    //submits one task per starting character of queries to pool, each of which fills in the result
+    // lines of its queries in results, indexed like queries.
+    private static List<Future<?>> submitBlock(CompactGraph<String, String> graph, List<String[]> queries,
+                                               String[] results, ExecutorService pool) {
+        //groups the index of each query by its starting character.
+        Map<String, List<Integer>> bySource = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            bySource.computeIfAbsent(queries.get(i)[0], start -> new ArrayList<>()).add(i);
+        }
+        List<Future<?>> tasks = new ArrayList<>(bySource.size());
+        for (Map.Entry<String, List<Integer>> group : bySource.entrySet()) {
+            tasks.add(pool.submit(() -> answer(graph, group.getKey(), group.getValue(), queries, results)));
+        }
+        return tasks;
+    }
+
+    //fills in the result line of each of the queries with the given indices, which all start at start.
+    private static void answer(CompactGraph<String, String> graph, String start, List<Integer> indices,
+                               List<String[]> queries, String[] results) {
+        List<Integer> found = new ArrayList<>(indices.size());
+        List<String> dests = new ArrayList<>(indices.size());
+        for (int i : indices) {
+            String dest = queries.get(i)[1];
+            if (!graph.containsNode(start)) {
+                results[i] = start + "\t" + dest + "\tunknown character\t" + start;
+            } else if (!graph.containsNode(dest)) {
+                results[i] = start + "\t" + dest + "\tunknown character\t" + dest;
+            } else {
+                found.add(i);
+                dests.add(dest);
+            }
+        }
+        if (dests.isEmpty()) {
+            return;
+        }
+        List<List<DirectedLabeledEdge<String, String>>> paths = findPathsFrom(graph, start, dests);
+        for (int k = 0; k < found.size(); k++) {
+            List<DirectedLabeledEdge<String, String>> path = paths.get(k);
+            StringBuilder result = new StringBuilder(start).append('\t').append(dests.get(k)).append('\t')
+                    .append(path == null ? -1 : path.size());
+            if (path != null) {
+                for (DirectedLabeledEdge<String, String> edge : path) {
+                    result.append('\t').append(edge.getSrc()).append(" to ").append(edge.getDest())
+                            .append(" via ").append(edge.getLabel());
+                }
+            }
+            results[found.get(k)] = result.toString();
+        }
+    }
+
+    //waits for the tasks of a block and writes its result lines in the order they were read, with the
+    // result line of each malformed line at its position in malformed.
+    private static void writeBlock(List<Future<?>> tasks, String[] results, Map<Integer, String> malformed,
+                                   PrintStream output) {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while answering queries.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        int next = 0;
+        for (int position = 0; position < results.length + malformed.size(); position++) {
+            String result = malformed.get(position);
+            output.println((result != null) ? result : results[next++]);
+        }
+    }
+
+    /**
+     * Finds the shortest path between two characters in a compact graph with a direction-optimizing
+     * BFS, which switches to scanning the unvisited characters for a neighbor in the frontier on the
+     * levels where the frontier covers most of the graph. The path found is the same one findPath
+     * finds on the DirectedGraph the compact graph was built from.
+     *
+     * @spec.requires graph contains start and dest nodes.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null, or graph was not
+     * built by compactGraph.
+     * @param graph the compact graph, built by compactGraph, that is used to find the shortest distance
+     *              between characters.
+     * @param start a character node in the graph
+     * @param dest a character node in the graph
+     * @return a List of DirectedLabeledEdges that represents the shortest path between start and
+     * dest nodes in the graph, or null if there is no path.
+     */
+    public static List<DirectedLabeledEdge<String, String>> findPathDirectionOptimizing(
+            CompactGraph<String, String> graph, String start, String dest) {
+        if (graph != null && !graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        }
+        //a sorted graph gives ids in order of name, so the least sequence of ids is the alphabetically
+        // first path, and loadGraph adds every edge both ways.
+        return DirectionOptimizingBFS.findPath(graph, start, dest);
+    }
+
+    //the arrays findPathCompact and findPathsFrom search with, kept by each thread and reused by every
+    // search it runs, so a search allocates nothing but the path it returns.
+    private static final ThreadLocal<SearchSpace> SEARCH_SPACE = ThreadLocal.withInitial(SearchSpace::new);
+
+    //the working arrays of a breadth-first search over the int ids of a compact graph. a node is
+    // marked in the current search iff stamp[node] == epoch, so starting a new search only takes
+    // incrementing epoch, and parent and via are only meaningful for marked nodes. every node is
+    // enqueued at most once, so queue needs no more room than there are nodes and never wraps around.
+    private static final class SearchSpace {
+        private int[] stamp = new int[0];
+        private int[] parent = new int[0];
+        private int[] via = new int[0];
+        private int[] queue = new int[0];
+        private int epoch = 0;
+
+        //starts a new search over a graph of nodeCount nodes, in which no node is marked.
+        private void reset(int nodeCount) {
+            if (stamp.length < nodeCount) {
+                stamp = new int[nodeCount];
+                parent = new int[nodeCount];
+                via = new int[nodeCount];
+                queue = new int[nodeCount];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == 0) {
+                //the stamps of a search 2^32 searches ago would look current again, so they are cleared.
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+        }
+
+        //returns true if node has been marked in the current search.
+        private boolean marked(int node) {
+            return stamp[node] == epoch;
+        }
+
+        //marks node as discovered from parentNode along entry.
+        private void mark(int node, int parentNode, int entry) {
+            stamp[node] = epoch;
+            parent[node] = parentNode;
+            via[node] = entry;
+        }
+    }
+
+    //the single EdgeComparator graphs built by loadGraph are sorted with, so findPath can tell a graph
+    // already lists its edges in order.
+    private static final EdgeComparator EDGE_ORDER = new EdgeComparator();
+
     //private class to be able to return the correct path when there are multiple shortest shortest paths.
     private static class EdgeComparator implements Comparator<DirectedLabeledEdge<String, String>>{
 
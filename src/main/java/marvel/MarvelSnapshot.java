@@ -0,0 +1,250 @@
+package marvel;
+
+import graph.CompactGraph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * <b>MarvelSnapshot</b> saves a compact marvel graph to a binary file, and loads it back by
+ * memory-mapping that file, so a program can start from a graph built on an earlier run instead of
+ * parsing the dataset and building the graph again.
+ *
+ * <p>A snapshot holds the int arrays of the graph, followed by a table of its character names and
+ * one of its book names. Its header records a checksum of the dataset file the graph was built from
+ * and one of the snapshot itself, and a snapshot is only loaded if both still match, so a snapshot
+ * of an older version of the dataset, or a damaged one, is never used.
+ */
+
+public final class MarvelSnapshot {
+
+    // No Abstraction Function or RepInvariant listed because MarvelSnapshot is not
+    // an Abstract Data Type.
+
+    // Abstract description: MarvelSnapshot is a pair of functions that write a compact graph to a
+    // file and read it back.
+
+    /** Marks the start of a snapshot. */
+    private static final int MAGIC = 0x4D475331;
+    /**
+     * The bytes of a snapshot before its body: magic, node, label, entry and edge counts, and the
+     * size and checksum of the dataset and the checksum of the body.
+     */
+    private static final int HEADER = 44;
+
+    private MarvelSnapshot() {
+    }
+
+    /**
+     * Saves a graph built from a dataset file to a snapshot file.
+     *
+     * @throws IllegalArgumentException if graph = null, source = null, file = null, or graph was not
+     * built by MarvelPaths.compactGraph.
+     * @throws UncheckedIOException if source cannot be read or file cannot be written.
+     * @param graph the graph, built by MarvelPaths.compactGraph, to save
+     * @param source the dataset file graph was built from
+     * @param file the file to save the snapshot to, which is replaced if it already exists
+     */
+    public static void save(CompactGraph<String, String> graph, Path source, Path file) {
+        if (graph == null || source == null || file == null) {
+            throw new IllegalArgumentException("Graph, source, and file cannot be null.");
+        }
+        if (!graph.isSorted()) {
+            throw new IllegalArgumentException("Graph must be built by MarvelPaths.compactGraph");
+        }
+        List<byte[]> nodes = new ArrayList<>(graph.nodeCount());
+        List<byte[]> labels = new ArrayList<>(graph.labelCount());
+        long strings = 0;
+        for (int id = 0; id < graph.nodeCount(); id++) {
+            nodes.add(graph.node(id).getBytes(StandardCharsets.UTF_8));
+            strings += Integer.BYTES + nodes.get(id).length;
+        }
+        for (int id = 0; id < graph.labelCount(); id++) {
+            labels.add(graph.labelOf(id).getBytes(StandardCharsets.UTF_8));
+            strings += Integer.BYTES + labels.get(id).length;
+        }
+        long ints = (graph.nodeCount() + 1L) + graph.entryCount() + (graph.entryCount() + 1L) + graph.edgeCount();
+        if (ints * Integer.BYTES + strings > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph is too large to snapshot.");
+        }
+        ByteBuffer body = ByteBuffer.allocate((int) (ints * Integer.BYTES + strings));
+        for (int id = 0; id <= graph.nodeCount(); id++) {
+            body.putInt(id < graph.nodeCount() ? graph.firstEdge(id) : graph.entryCount());
+        }
+        for (int entry = 0; entry < graph.entryCount(); entry++) {
+            body.putInt(graph.target(entry));
+        }
+        for (int entry = 0; entry <= graph.entryCount(); entry++) {
+            body.putInt(entry < graph.entryCount() ? graph.firstLabel(entry) : graph.edgeCount());
+        }
+        for (int index = 0; index < graph.edgeCount(); index++) {
+            body.putInt(graph.labelIdAt(index));
+        }
+        for (byte[] name : nodes) {
+            body.putInt(name.length).put(name);
+        }
+        for (byte[] name : labels) {
+            body.putInt(name.length).put(name);
+        }
+        body.flip();
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(graph.nodeCount()).putInt(graph.labelCount())
+                .putInt(graph.entryCount()).putInt(graph.edgeCount());
+        try {
+            header.putLong(sizeOf(source)).putLong(checksum(source)).putLong(checksum(body.duplicate())).flip();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (body.hasRemaining()) {
+                    channel.write(body);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the graph saved in a snapshot file, memory-mapping the file instead of reading it.
+     *
+     * @throws IllegalArgumentException if source = null, file = null, or file does not hold an
+     * undamaged snapshot of the current contents of source.
+     * @throws UncheckedIOException if source or file cannot be read.
+     * @param source the dataset file the graph was built from
+     * @param file the file the snapshot was saved to
+     * @return a sorted CompactGraph with the nodes and edges of the graph saved in file, as
+     * MarvelPaths.compactGraph would build from source.
+     */
+    public static CompactGraph<String, String> load(Path source, Path file) {
+        if (source == null || file == null) {
+            throw new IllegalArgumentException("Source and file cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(file + " does not hold a snapshot.");
+            }
+            ByteBuffer snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (snapshot.getInt() != MAGIC) {
+                throw new IllegalArgumentException(file + " does not hold a snapshot.");
+            }
+            int nodeCount = snapshot.getInt();
+            int labelCount = snapshot.getInt();
+            int entryCount = snapshot.getInt();
+            int edgeCount = snapshot.getInt();
+            if (snapshot.getLong() != sizeOf(source) || snapshot.getLong() != checksum(source)) {
+                throw new IllegalArgumentException(file + " is a snapshot of another version of " + source);
+            }
+            long bodyChecksum = snapshot.getLong();
+            long ints = (nodeCount + 1L) + entryCount + (entryCount + 1L) + edgeCount;
+            if (nodeCount < 0 || labelCount < 0 || entryCount < 0 || edgeCount < 0
+                    || ints * Integer.BYTES > snapshot.remaining()) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            }
+            if (checksum(snapshot.duplicate()) != bodyChecksum) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            }
+            int[] offsets = readInts(snapshot, nodeCount + 1);
+            int[] targets = readInts(snapshot, entryCount);
+            int[] labelOffsets = readInts(snapshot, entryCount + 1);
+            int[] labelIds = readInts(snapshot, edgeCount);
+            List<String> nodes = readStrings(snapshot, nodeCount);
+            List<String> labels = readStrings(snapshot, labelCount);
+            return CompactGraph.sorted(nodes, labels, offsets, targets, labelOffsets, labelIds);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException(file + " is damaged.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the graph saved in a snapshot file if it is a snapshot of the current contents of a
+     * dataset file, and otherwise builds the graph from the dataset and saves it to that file. The
+     * file is only a cache: if it cannot be read the graph is built, and if it cannot be written the
+     * built graph is returned unsaved.
+     *
+     * @throws IllegalArgumentException if source = null, file = null, or source is malformed.
+     * @throws UncheckedIOException if source cannot be read.
+     * @param source the dataset file to build the graph from
+     * @param file the file the snapshot is kept in
+     * @return a sorted CompactGraph with the nodes and edges of
+     * MarvelPaths.compactGraph(MarvelPaths.loadGraph(source))
+     */
+    public static CompactGraph<String, String> loadOrBuild(Path source, Path file) {
+        if (source == null || file == null) {
+            throw new IllegalArgumentException("Source and file cannot be null.");
+        }
+        if (Files.exists(file)) {
+            try {
+                return load(source, file);
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                //the snapshot is stale, damaged, or cannot be read, so it is rebuilt below.
+            }
+        }
+        CompactGraph<String, String> graph = MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString()));
+        try {
+            save(graph, source, file);
+        } catch (UncheckedIOException e) {
+            //the file cannot be written, such as from a read-only directory, so the graph is only used,
+            // not cached.
+        }
+        return graph;
+    }
+
+    //reads count ints from buffer.
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    //reads count length-prefixed UTF-8 strings from buffer.
+    private static List<String> readStrings(ByteBuffer buffer, int count) {
+        List<String> values = new ArrayList<>(count);
+        byte[] bytes = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            buffer.get(bytes, 0, length);
+            values.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    //returns the size of file in bytes.
+    private static long sizeOf(Path file) throws IOException {
+        return Files.size(file);
+    }
+
+    //returns the CRC32 of the contents of file.
+    private static long checksum(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return checksum(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    //returns the CRC32 of the remaining bytes of buffer.
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,758 @@
+package pathfinder;
+
+import graph.WeightedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * <b>ContractionHierarchy</b> is an immutable index over a weighted graph of campus points that
+ * answers shortest path queries without searching the whole graph. It is built once by contracting
+ * the points one at a time, from the least important to the most: a point is removed from the graph
+ * and, for each pair of its neighbors whose shortest path ran through it, a shortcut edge with the
+ * cost of that path is added between them. The order a point was contracted in is its rank.
+ *
+ * <p>Every shortest path then has a version that climbs to higher ranks and comes back down, so
+ * findPath searches forward from the start and backward from the dest along edges that only go up
+ * in rank, and the two searches meet at the highest point of the path after settling a few dozen
+ * points. Shortcuts on the path found are unpacked back into the edges of the graph.
+ *
+ * <p>A hierarchy can be saved to a file and loaded again, so it is only built once for a graph. The
+ * file records a checksum of the graph's points and edges, and a hierarchy is only loaded for the
+ * graph it was built from.
+ *
+ * @spec.specfield graph: WeightedGraph. The graph the hierarchy answers queries over
+ * @spec.specfield <br>rank: function. The order each point of graph was contracted in
+ * @spec.specfield <br>shortcuts: set. The edges added to graph while contracting it, each with the
+ * cost of a path in graph between its points
+ */
+
+public final class ContractionHierarchy {
+
+    /** Marks the start of a saved hierarchy. */
+    private static final int MAGIC = 0x43484931;
+    /**
+     * The bytes of a saved hierarchy before its body: magic, node and edge counts, the checksum of
+     * the graph and the checksum of the body.
+     */
+    private static final int HEADER = 28;
+    /** The bytes each edge takes in a saved hierarchy: from, to, weight, first and second. */
+    private static final int EDGE_BYTES = 4 * Integer.BYTES + Double.BYTES;
+    /**
+     * The most points a witness search settles before giving up and adding the shortcut anyway.
+     * An extra shortcut never makes a query wrong, only a little slower.
+     */
+    private static final int WITNESS_LIMIT = 100;
+    private final static boolean CHECK_REP_ON = false;
+
+    private final WeightedGraph<Point> graph;
+    private final int[] rank;
+    private final int[] from;
+    private final int[] to;
+    private final double[] weight;
+    private final int[] first;
+    private final int[] second;
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    // Abstraction Function:
+    // graph is this.graph and rank(p) = rank[graph.idOf(p)]. The edges of the hierarchy are, for each
+    // index e, the edge from the point with id from[e] to the one with id to[e] costing weight[e].
+    // If first[e] == -1, e is an edge of graph, and otherwise e is a shortcut standing for edge
+    // first[e] followed by edge second[e]. upEdges[upOffsets[n], upOffsets[n + 1]) are the edges out
+    // of point n to higher ranks, and downEdges[downOffsets[n], downOffsets[n + 1]) the edges into
+    // point n from higher ranks.
+
+    // RepInvariant:
+    // graph != null and the arrays != null && rank is a permutation of [0, graph.nodeCount()) &&
+    // from, to, weight, first and second all have the same length && for each e,
+    // from[e] != to[e] && weight[e] >= 0 && either first[e] == second[e] == -1 and graph has an edge
+    // from from[e] to to[e] costing weight[e], or 0 <= first[e], second[e] < e && from[first[e]] == from[e] &&
+    // to[first[e]] == from[second[e]] == a point of lower rank than from[e] and to[e] && to[second[e]] == to[e] &&
+    // weight[e] == weight[first[e]] + weight[second[e]] &&
+    // each edge is in the up range of from[e] if rank[from[e]] < rank[to[e]], and otherwise in the
+    // down range of to[e]
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (graph != null && rank != null && from != null && to != null && weight != null);
+            assert (first != null && second != null && upOffsets != null && downOffsets != null);
+            assert (validate(graph, rank, from, to, weight, first, second));
+            for (int node = 0; node < rank.length; node++) {
+                for (int i = upOffsets[node]; i < upOffsets[node + 1]; i++) {
+                    assert (from[upEdges[i]] == node && rank[to[upEdges[i]]] > rank[node]);
+                }
+                for (int i = downOffsets[node]; i < downOffsets[node + 1]; i++) {
+                    assert (to[downEdges[i]] == node && rank[from[downEdges[i]]] > rank[node]);
+                }
+            }
+            assert (upEdges.length + downEdges.length == from.length);
+        }
+    }
+
+    //creates a hierarchy over graph from its ranks and edges, which it takes ownership of, and splits
+    // the edges into the up and down ranges of each point.
+    private ContractionHierarchy(WeightedGraph<Point> graph, int[] rank, int[] from, int[] to, double[] weight,
+                                 int[] first, int[] second) {
+        this.graph = graph;
+        this.rank = rank;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+        this.first = first;
+        this.second = second;
+        int n = graph.nodeCount();
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int e = 0; e < from.length; e++) {
+            if (rank[from[e]] < rank[to[e]]) {
+                upOffsets[from[e] + 1]++;
+            } else {
+                downOffsets[to[e] + 1]++;
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            upOffsets[node + 1] += upOffsets[node];
+            downOffsets[node + 1] += downOffsets[node];
+        }
+        upEdges = new int[upOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        int[] nextUp = Arrays.copyOf(upOffsets, n);
+        int[] nextDown = Arrays.copyOf(downOffsets, n);
+        for (int e = 0; e < from.length; e++) {
+            if (rank[from[e]] < rank[to[e]]) {
+                upEdges[nextUp[from[e]]++] = e;
+            } else {
+                downEdges[nextDown[to[e]]++] = e;
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Builds the contraction hierarchy of a graph. Points are contracted in order of how many
+     * shortcuts contracting them would add, less the edges it would remove, plus how many of their
+     * neighbors are already contracted, so points in the middle of dense areas go last and the
+     * contractions stay spread across the graph.
+     *
+     * @throws IllegalArgumentException if graph = null or graph has an edge with a negative or NaN cost.
+     * @param graph the graph to build the hierarchy of
+     * @return a new ContractionHierarchy with this.graph = graph
+     */
+    public static ContractionHierarchy build(WeightedGraph<Point> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        Contraction contraction = new Contraction(graph);
+        return new ContractionHierarchy(graph, contraction.contractAll(), contraction.from.toArray(),
+                contraction.to.toArray(), Arrays.copyOf(contraction.weight, contraction.from.size),
+                contraction.first.toArray(), contraction.second.toArray());
+    }
+
+    /**
+     * Loads a hierarchy saved by save.
+     *
+     * @throws IllegalArgumentException if graph = null, file = null, or file does not hold an
+     * undamaged hierarchy built for graph.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @param graph the graph the hierarchy was built for
+     * @param file the file the hierarchy was saved to
+     * @return a new ContractionHierarchy with this.graph = graph and the ranks and shortcuts saved
+     * in file
+     */
+    public static ContractionHierarchy load(WeightedGraph<Point> graph, java.nio.file.Path file) {
+        if (graph == null || file == null) {
+            throw new IllegalArgumentException("Graph and file cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(file + " does not hold a hierarchy.");
+            }
+            ByteBuffer saved = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (saved.getInt() != MAGIC) {
+                throw new IllegalArgumentException(file + " does not hold a hierarchy.");
+            }
+            int nodeCount = saved.getInt();
+            int edgeCount = saved.getInt();
+            if (nodeCount != graph.nodeCount() || saved.getLong() != checksum(graph)) {
+                throw new IllegalArgumentException(file + " does not hold a hierarchy for this graph.");
+            }
+            long bodyChecksum = saved.getLong();
+            if (edgeCount < 0 || (long) edgeCount * EDGE_BYTES + (long) nodeCount * Integer.BYTES != saved.remaining()
+                    || checksum(saved.duplicate()) != bodyChecksum) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            }
+            int[] rank = new int[nodeCount];
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            double[] weight = new double[edgeCount];
+            int[] first = new int[edgeCount];
+            int[] second = new int[edgeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                rank[node] = saved.getInt();
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                from[e] = saved.getInt();
+                to[e] = saved.getInt();
+                weight[e] = saved.getDouble();
+                first[e] = saved.getInt();
+                second[e] = saved.getInt();
+            }
+            if (!validate(graph, rank, from, to, weight, first, second)) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            }
+            return new ContractionHierarchy(graph, rank, from, to, weight, first, second);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(file + " is damaged.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the hierarchy saved in a file if it was built for a graph, and otherwise builds the
+     * hierarchy and saves it to that file. The file is only a cache: if it cannot be read the
+     * hierarchy is built, and if it cannot be written the built hierarchy is returned unsaved.
+     *
+     * @throws IllegalArgumentException if graph = null, file = null, or graph has an edge with a
+     * negative or NaN cost.
+     * @param graph the graph to build the hierarchy of
+     * @param file the file the hierarchy is kept in
+     * @return a ContractionHierarchy with this.graph = graph
+     */
+    public static ContractionHierarchy loadOrBuild(WeightedGraph<Point> graph, java.nio.file.Path file) {
+        if (graph == null || file == null) {
+            throw new IllegalArgumentException("Graph and file cannot be null.");
+        }
+        if (Files.exists(file)) {
+            try {
+                return load(graph, file);
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                //the file holds a hierarchy for some other graph, a damaged one, or cannot be read, so
+                // it is rebuilt below.
+            }
+        }
+        ContractionHierarchy hierarchy = build(graph);
+        try {
+            hierarchy.save(file);
+        } catch (UncheckedIOException e) {
+            //the file cannot be written, such as from a read-only directory, so the hierarchy is only
+            // used, not cached.
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Saves this hierarchy to a file that load can read.
+     *
+     * @throws IllegalArgumentException if file = null.
+     * @throws UncheckedIOException if the file cannot be written.
+     * @param file the file to save this hierarchy to, which is replaced if it already exists
+     */
+    public void save(java.nio.file.Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        ByteBuffer body = ByteBuffer.allocate(rank.length * Integer.BYTES + from.length * EDGE_BYTES);
+        for (int r : rank) {
+            body.putInt(r);
+        }
+        for (int e = 0; e < from.length; e++) {
+            body.putInt(from[e]).putInt(to[e]).putDouble(weight[e]).putInt(first[e]).putInt(second[e]);
+        }
+        body.flip();
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(rank.length).putInt(from.length).putLong(checksum(graph))
+                .putLong(checksum(body.duplicate())).flip();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (body.hasRemaining()) {
+                    channel.write(body);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the graph this hierarchy answers queries over.
+     *
+     * @return this.graph
+     */
+    public WeightedGraph<Point> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of shortcuts added while building this hierarchy.
+     *
+     * @return |this.shortcuts|
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int e = 0; e < first.length; e++) {
+            if (first[e] != -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the minimum cost path between two points of this.graph, searching up the hierarchy from
+     * both ends. The path found costs the same as the one Dijkstra.findPathWeighted finds.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.graph does not contain
+     * start and dest.
+     * @param start a point in the graph
+     * @param dest a point in the graph
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest points in the graph,
+     * or null if there is no path.
+     */
+    public Path<Point> findPath(Point start, Point dest, SearchStats stats) {
+        if (start == null || dest == null) {
+            throw new IllegalArgumentException("Start and dest cannot be null.");
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId == -1 || destId == -1) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        QuerySpace space = QUERY_SPACE.get();
+        space.reset(graph.nodeCount());
+        Side forward = space.forward;
+        Side backward = space.backward;
+        forward.reach(startId, 0, -1);
+        backward.reach(destId, 0, -1);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        if (startId == destId) {
+            best = 0;
+            meet = startId;
+        }
+        //each side settles points in order of cost, so once neither can settle a point cheaper than the
+        // best meeting found, no cheaper one is left to find.
+        while (true) {
+            double forwardMin = forward.queue.isEmpty() ? Double.POSITIVE_INFINITY : forward.queue.minKey();
+            double backwardMin = backward.queue.isEmpty() ? Double.POSITIVE_INFINITY : backward.queue.minKey();
+            if (Math.min(forwardMin, backwardMin) >= best) {
+                break;
+            }
+            boolean isForward = forwardMin <= backwardMin;
+            Side side = isForward ? forward : backward;
+            Side other = isForward ? backward : forward;
+            int node = side.queue.removeMin();
+            if (stats != null) {
+                stats.settle();
+            }
+            double cost = side.cost[node];
+            if (other.reached(node) && cost + other.cost[node] < best) {
+                best = cost + other.cost[node];
+                meet = node;
+            }
+            int[] offsets = isForward ? upOffsets : downOffsets;
+            int[] edges = isForward ? upEdges : downEdges;
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int e = edges[i];
+                int next = isForward ? to[e] : from[e];
+                double newCost = cost + weight[e];
+                if (stats != null) {
+                    stats.relax();
+                }
+                if (!side.reached(next) || newCost < side.cost[next]) {
+                    side.reach(next, newCost, e);
+                    if (stats != null) {
+                        stats.queue();
+                    }
+                }
+            }
+        }
+        if (meet == -1) {
+            // no path exists from start to dest
+            return null;
+        }
+        //the edges from start up to meet, then from meet down to dest, each unpacked into edges of graph.
+        List<Integer> up = new ArrayList<>();
+        for (int node = meet; node != startId; node = from[forward.via[node]]) {
+            up.add(forward.via[node]);
+        }
+        Path<Point> path = new Path<>(start);
+        for (int i = up.size() - 1; i >= 0; i--) {
+            path = unpack(up.get(i), path);
+        }
+        for (int node = meet; node != destId; node = to[backward.via[node]]) {
+            path = unpack(backward.via[node], path);
+        }
+        return path;
+    }
+
+    //extends path by the edges of graph that edge e stands for.
+    private Path<Point> unpack(int e, Path<Point> path) {
+        if (first[e] == -1) {
+            return path.extend(graph.node(to[e]), weight[e]);
+        }
+        return unpack(second[e], unpack(first[e], path));
+    }
+
+    //returns true if the ranks and edges form a hierarchy over graph that satisfies the rep invariant.
+    private static boolean validate(WeightedGraph<Point> graph, int[] rank, int[] from, int[] to, double[] weight,
+                                    int[] first, int[] second) {
+        int n = graph.nodeCount();
+        if (rank.length != n) {
+            return false;
+        }
+        boolean[] ranked = new boolean[n];
+        for (int r : rank) {
+            if (r < 0 || r >= n || ranked[r]) {
+                return false;
+            }
+            ranked[r] = true;
+        }
+        for (int e = 0; e < from.length; e++) {
+            if (from[e] < 0 || from[e] >= n || to[e] < 0 || to[e] >= n || from[e] == to[e] || !(weight[e] >= 0)) {
+                return false;
+            }
+            if (first[e] == -1 && second[e] == -1) {
+                if (!hasEdge(graph, from[e], to[e], weight[e])) {
+                    return false;
+                }
+            } else if (first[e] < 0 || first[e] >= e || second[e] < 0 || second[e] >= e
+                    || from[first[e]] != from[e] || to[second[e]] != to[e] || to[first[e]] != from[second[e]]
+                    || rank[to[first[e]]] > Math.min(rank[from[e]], rank[to[e]])
+                    || weight[e] != weight[first[e]] + weight[second[e]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //returns true if graph has an edge from the point with id a to the one with id b costing w.
+    private static boolean hasEdge(WeightedGraph<Point> graph, int a, int b, double w) {
+        for (int edge = graph.firstEdge(a); edge < graph.endEdge(a); edge++) {
+            if (graph.target(edge) == b && graph.weight(edge) == w) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //returns a checksum of the points of graph in id order and of the targets and costs of their
+    // edges, so a saved hierarchy is only loaded for the graph it was built from.
+    private static long checksum(WeightedGraph<Point> graph) {
+        CRC32 crc = new CRC32();
+        ByteBuffer values = ByteBuffer.allocate(2 * Double.BYTES);
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            values.clear();
+            values.putDouble(graph.node(node).getX()).putDouble(graph.node(node).getY()).flip();
+            crc.update(values);
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                values.clear();
+                values.putInt(graph.target(edge)).putDouble(graph.weight(edge)).flip();
+                crc.update(values);
+            }
+        }
+        return crc.getValue();
+    }
+
+    //returns the CRC32 of the remaining bytes of buffer.
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    //the arrays findPath searches with, kept by each thread and reused by every query it runs, so a
+    // query allocates little but the path it returns.
+    private static final ThreadLocal<QuerySpace> QUERY_SPACE = ThreadLocal.withInitial(QuerySpace::new);
+
+    //the two searches of a query.
+    private static final class QuerySpace {
+        private final Side forward = new Side();
+        private final Side backward = new Side();
+
+        //starts a new query over a graph of nodeCount points, in which neither side has reached a point.
+        private void reset(int nodeCount) {
+            forward.reset(nodeCount);
+            backward.reset(nodeCount);
+        }
+    }
+
+    //the working arrays of one side of a query. a point is reached in the current query iff
+    // stamp[node] == epoch, so starting a new query only takes incrementing epoch, and cost and via
+    // are only meaningful for reached points.
+    private static final class Side {
+        private int[] stamp = new int[0];
+        private double[] cost = new double[0];
+        private int[] via = new int[0];
+        private IndexedMinHeap queue = new IndexedMinHeap(0);
+        private int epoch = 0;
+
+        //starts a new search over a graph of nodeCount points, in which no point is reached.
+        private void reset(int nodeCount) {
+            if (stamp.length < nodeCount) {
+                stamp = new int[nodeCount];
+                cost = new double[nodeCount];
+                via = new int[nodeCount];
+                queue = new IndexedMinHeap(nodeCount);
+                epoch = 0;
+            }
+            queue.clear();
+            epoch++;
+            if (epoch == 0) {
+                //the stamps of a query 2^32 queries ago would look current again, so they are cleared.
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+        }
+
+        //returns true if node has been reached in the current search.
+        private boolean reached(int node) {
+            return stamp[node] == epoch;
+        }
+
+        //records that node can be reached at cost along edge e, and queues it at that cost.
+        private void reach(int node, double newCost, int e) {
+            stamp[node] = epoch;
+            cost[node] = newCost;
+            via[node] = e;
+            queue.insertOrDecrease(node, newCost);
+        }
+    }
+
+    //the state of building a hierarchy: the edges added so far, and for each point the edges into
+    // and out of it, which still include the edges to points already contracted.
+    private static final class Contraction {
+        private final WeightedGraph<Point> graph;
+        private final IntList from = new IntList();
+        private final IntList to = new IntList();
+        private double[] weight = new double[16];
+        private final IntList first = new IntList();
+        private final IntList second = new IntList();
+        private final IntList[] out;
+        private final IntList[] in;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        //the witness search's costs, stamped like a Side so each search starts without clearing them.
+        private final double[] witnessCost;
+        private final int[] witnessStamp;
+        private final IndexedMinHeap witnessQueue;
+        private int witnessEpoch = 0;
+
+        //starts a contraction of graph with one edge for each pair of points graph joins, at the
+        // least cost graph joins them at.
+        private Contraction(WeightedGraph<Point> graph) {
+            this.graph = graph;
+            int n = graph.nodeCount();
+            out = new IntList[n];
+            in = new IntList[n];
+            for (int node = 0; node < n; node++) {
+                out[node] = new IntList();
+                in[node] = new IntList();
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            witnessCost = new double[n];
+            witnessStamp = new int[n];
+            witnessQueue = new IndexedMinHeap(n);
+            for (int node = 0; node < n; node++) {
+                for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                    int target = graph.target(edge);
+                    if (!(graph.weight(edge) >= 0)) {
+                        throw new IllegalArgumentException("Graph cannot have negative or NaN costs.");
+                    }
+                    if (target == node) {
+                        continue;
+                    }
+                    int existing = edgeBetween(node, target);
+                    if (existing == -1) {
+                        addEdge(node, target, graph.weight(edge), -1, -1);
+                    } else if (graph.weight(edge) < weight[existing]) {
+                        weight[existing] = graph.weight(edge);
+                    }
+                }
+            }
+        }
+
+        //contracts every point, and returns the rank of each.
+        private int[] contractAll() {
+            int n = graph.nodeCount();
+            int[] rank = new int[n];
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int node = 0; node < n; node++) {
+                order.insertOrDecrease(node, priority(node));
+            }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int node = order.removeMin();
+                //priorities go stale as neighbors are contracted, so the point is only contracted if
+                // it is still the least once its priority is brought up to date.
+                double current = priority(node);
+                if (!order.isEmpty() && current > order.minKey()) {
+                    order.insertOrDecrease(node, current);
+                    continue;
+                }
+                contract(node, true);
+                contracted[node] = true;
+                rank[node] = next++;
+                for (int i = 0; i < out[node].size; i++) {
+                    contractedNeighbors[to.get(out[node].get(i))]++;
+                }
+                for (int i = 0; i < in[node].size; i++) {
+                    contractedNeighbors[from.get(in[node].get(i))]++;
+                }
+            }
+            return rank;
+        }
+
+        //returns how soon node should be contracted: the shortcuts it needs less the edges it would
+        // remove, plus how many of its neighbors have been contracted.
+        private double priority(int node) {
+            int removed = 0;
+            for (int i = 0; i < out[node].size; i++) {
+                removed += contracted[to.get(out[node].get(i))] ? 0 : 1;
+            }
+            for (int i = 0; i < in[node].size; i++) {
+                removed += contracted[from.get(in[node].get(i))] ? 0 : 1;
+            }
+            return contract(node, false) - removed + contractedNeighbors[node];
+        }
+
+        //finds the shortcuts contracting node needs, adding them if add is true, and returns how many.
+        // a shortcut from u to w is needed if the path through node is cheaper than any the witness
+        // search finds around it.
+        private int contract(int node, boolean add) {
+            int shortcuts = 0;
+            for (int i = 0; i < in[node].size; i++) {
+                int inEdge = in[node].get(i);
+                int u = from.get(inEdge);
+                if (contracted[u]) {
+                    continue;
+                }
+                double limit = 0;
+                for (int j = 0; j < out[node].size; j++) {
+                    int w = to.get(out[node].get(j));
+                    if (!contracted[w] && w != u) {
+                        limit = Math.max(limit, weight[inEdge] + weight[out[node].get(j)]);
+                    }
+                }
+                witnessSearch(u, node, limit);
+                for (int j = 0; j < out[node].size; j++) {
+                    int outEdge = out[node].get(j);
+                    int w = to.get(outEdge);
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    double through = weight[inEdge] + weight[outEdge];
+                    if (witnessStamp[w] == witnessEpoch && witnessCost[w] <= through) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (add) {
+                        addEdge(u, w, through, inEdge, outEdge);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        //runs Dijkstra's algorithm from source over the points not yet contracted, other than
+        // skipped, until it has settled every point costing at most limit or WITNESS_LIMIT points.
+        private void witnessSearch(int source, int skipped, double limit) {
+            witnessEpoch++;
+            witnessQueue.clear();
+            witnessStamp[source] = witnessEpoch;
+            witnessCost[source] = 0;
+            witnessQueue.insertOrDecrease(source, 0);
+            int settled = 0;
+            while (!witnessQueue.isEmpty() && witnessQueue.minKey() <= limit && settled < WITNESS_LIMIT) {
+                int node = witnessQueue.removeMin();
+                settled++;
+                for (int i = 0; i < out[node].size; i++) {
+                    int e = out[node].get(i);
+                    int next = to.get(e);
+                    if (contracted[next] || next == skipped) {
+                        continue;
+                    }
+                    double newCost = witnessCost[node] + weight[e];
+                    if (witnessStamp[next] != witnessEpoch || newCost < witnessCost[next]) {
+                        witnessStamp[next] = witnessEpoch;
+                        witnessCost[next] = newCost;
+                        witnessQueue.insertOrDecrease(next, newCost);
+                    }
+                }
+            }
+        }
+
+        //returns the index of the edge from a to b added so far, or -1 if there is none.
+        private int edgeBetween(int a, int b) {
+            for (int i = 0; i < out[a].size; i++) {
+                if (to.get(out[a].get(i)) == b) {
+                    return out[a].get(i);
+                }
+            }
+            return -1;
+        }
+
+        //adds the edge from a to b costing w, which stands for edges firstEdge and secondEdge if it is
+        // a shortcut.
+        private void addEdge(int a, int b, double w, int firstEdge, int secondEdge) {
+            int e = from.size;
+            if (e == weight.length) {
+                weight = Arrays.copyOf(weight, 2 * e);
+            }
+            from.add(a);
+            to.add(b);
+            weight[e] = w;
+            first.add(firstEdge);
+            second.add(secondEdge);
+            out[a].add(e);
+            in[b].add(e);
+        }
+    }
+
+    //a growable list of ints.
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
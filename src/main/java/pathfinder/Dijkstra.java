@@ -1,11 +1,15 @@
 package pathfinder;
 import graph.DirectedGraph;
 import graph.DirectedLabeledEdge;
+import graph.Graph;
+import graph.WeightedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusPath;
 
 import java.util.*;
+import java.util.function.IntToDoubleFunction;
 
 public class Dijkstra {
 
@@ -28,31 +32,17 @@ public class Dijkstra {
      //new campus buildings for them if they weren't in the campus building tsv file. It then adds all these campus
      //buildings as the nodes, and then it adds an edge for each path with labels that are equal to the path cost.*/
     public static DirectedGraph<Point, Double> loadGraph(List<CampusPath> paths) {
-
-        DirectedGraph<Point, Double> graph = new DirectedGraph<>();
+        //every path has two end points and most points are shared by several paths, so paths.size()
+        // is a comfortable upper bound on the number of nodes.
+        DirectedGraph.Builder<Point, Double> graph = new DirectedGraph.Builder<>(paths.size(), false);
         for (CampusPath path: paths) {
             Point startPoint = new Point(path.getX1(), path.getY1());
             Point destPoint = new Point(path.getX2(), path.getY2());
-
-
-
-            graph.addNode(startPoint);
-
-
-            graph.addNode(destPoint);
-
-            if ((!graph.containsNode(startPoint)) || (!graph.containsNode(destPoint))) {
-                throw new IllegalArgumentException("Both buildings need to exist in the graph.");
-            } else {
-
-                graph.addEdge(new DirectedLabeledEdge<>(startPoint, destPoint, path.getDistance()));
-                graph.addEdge(new DirectedLabeledEdge<>(destPoint, startPoint, path.getDistance()));
-
-            }
-        }
-
-            return graph;
+            graph.addEdge(new DirectedLabeledEdge<>(startPoint, destPoint, path.getDistance()));
+            graph.addEdge(new DirectedLabeledEdge<>(destPoint, startPoint, path.getDistance()));
         }
+        return graph.build();
+    }
 
 
     /**
@@ -66,7 +56,7 @@ public class Dijkstra {
      * @return a List of DirectedLabeledEdges that represents the minimum cost path between start and
      * dest nodes in the graph.
      */
-    public static <E> Path<E> findPath(DirectedGraph<E, Double> graph, E start, E dest) {
+    public static <E> Path<E> findPath(Graph<E, Double> graph, E start, E dest) {
         if (graph == null || start == null || dest == null) {
             throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
         }
@@ -74,36 +64,335 @@ public class Dijkstra {
         if (!(graph.containsNode(start) && graph.containsNode(dest))) {
             throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
         }
-        Queue<Path<E>> active = new PriorityQueue<Path<E>>( (first, second)-> (int) (first.getCost() - second.getCost()));
-        //finished = set of nodes for which we know the minimum-cost path from start.
-        Set<E> finished = new HashSet<>();
-        // Initially we only know of the path from start to itself, so we add that path to queue.
-        active.add(new Path<E>(start));
+        //nodes are given int ids as they are discovered, so the queue can hold each node once and
+        // lower its cost in place. via.get(id) is the last edge of the cheapest path to the node with
+        // that id found so far, and only the final route is turned into a Path.
+        Map<E, Integer> ids = new HashMap<>();
+        List<E> nodes = new ArrayList<>();
+        List<DirectedLabeledEdge<E, Double>> via = new ArrayList<>();
+        //finished = set of ids of nodes for which we know the minimum-cost path from start.
+        BitSet finished = new BitSet();
+        IndexedMinHeap active = new IndexedMinHeap(16);
+        ids.put(start, 0);
+        nodes.add(start);
+        via.add(null);
+        active.insertOrDecrease(0, 0);
         while (!active.isEmpty()) {
-            // minPath is the lowest cost path in active
-            Path<E> minPath = active.remove();
-            // minDest is the destination node in minPath
-            E minDest = minPath.getEnd();
-            if (minDest.equals(dest)) {
-                return minPath;
+            double minCost = active.minKey();
+            int minDest = active.removeMin();
+            if (nodes.get(minDest).equals(dest)) {
+                Deque<DirectedLabeledEdge<E, Double>> edges = new ArrayDeque<>();
+                for (DirectedLabeledEdge<E, Double> edge = via.get(minDest); edge != null;
+                     edge = via.get(ids.get(edge.getSrc()))) {
+                    edges.push(edge);
+                }
+                Path<E> path = new Path<>(start);
+                for (DirectedLabeledEdge<E, Double> edge : edges) {
+                    path = path.extend(edge.getDest(), edge.getLabel());
+                }
+                return path;
+            }
+            finished.set(minDest);
+            for (DirectedLabeledEdge<E, Double> edge : graph.listChildren(nodes.get(minDest))) {
+                Integer current = ids.get(edge.getDest());
+                if (current == null) {
+                    current = nodes.size();
+                    ids.put(edge.getDest(), current);
+                    nodes.add(edge.getDest());
+                    via.add(null);
+                }
+                // If we don't have min cost path from edge's dest node, and this one is cheaper
+                if (!finished.get(current) && active.insertOrDecrease(current, minCost + edge.getLabel())) {
+                    via.set(current, edge);
+                }
             }
+        }
+        // no path exists from start to dest
+        return null;
+    }
 
+    /**
+     * Finds the minimum cost path between two nodes in a weighted graph. Weights are read as
+     * primitive doubles and the queue is an indexed heap of int node ids that lowers the cost of a
+     * node in place, so relaxing an edge does not allocate and the queue never holds stale entries.
+     *
+     * @spec.requires graph contains start and dest nodes.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null.
+     * @param graph the weighted graph that is used to find the shortest distance between two nodes.
+     * @param start a node in the graph
+     * @param dest a node in the graph
+     * @return a Path that represents the minimum cost path between start and dest nodes in the graph,
+     * or null if there is no path.
+     */
+    public static <E> Path<E> findPathWeighted(WeightedGraph<E> graph, E start, E dest) {
+        return findPathWeighted(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a weighted graph, as findPathWeighted(graph,
+     * start, dest) does, and counts the work the search did in stats.
+     *
+     * @spec.requires graph contains start and dest nodes.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null.
+     * @param graph the weighted graph that is used to find the shortest distance between two nodes.
+     * @param start a node in the graph
+     * @param dest a node in the graph
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest nodes in the graph,
+     * or null if there is no path.
+     */
+    public static <E> Path<E> findPathWeighted(WeightedGraph<E> graph, E start, E dest, SearchStats stats) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        //if either src or dest node are not in the graph, there can be no path
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        return search(graph, start, dest, null, stats);
+    }
+
+    /**
+     * Finds the minimum cost path between two points in a weighted graph with A* search, which
+     * orders the points in its queue by their cost from start plus a lower bound on their cost to
+     * dest: the straight-line distance between them times scale. With scale = heuristicScale(graph)
+     * that bound never overestimates, so the path found costs the same as the one findPathWeighted
+     * finds, while the search settles the points that lie toward dest first and stops sooner.
+     *
+     * @spec.requires graph contains start and dest nodes, and every edge of graph costs at least
+     * scale times the straight-line distance between its points.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null, or scale is
+     * negative, infinite or NaN.
+     * @param graph the weighted graph that is used to find the shortest distance between two points.
+     * @param start a point in the graph
+     * @param dest a point in the graph
+     * @param scale the cost per unit of straight-line distance that no path is cheaper than, such as
+     *              heuristicScale(graph)
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest points in the graph,
+     * or null if there is no path.
+     */
+    public static Path<Point> findPathAStar(WeightedGraph<Point> graph, Point start, Point dest, double scale,
+                                            SearchStats stats) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        if (!(scale >= 0 && scale < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Scale must be finite and not negative.");
+        }
+        //if either src or dest node are not in the graph, there can be no path
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        return search(graph, start, dest, node -> scale * distance(graph.node(node), dest), stats);
+    }
 
-                for (DirectedLabeledEdge<E, Double> edge : graph.listChildren(minDest)) {
-                    E current = edge.getDest();
+    /**
+     * Finds the minimum cost path between two nodes in a symmetric weighted graph with a
+     * bidirectional Dijkstra search: one search settles nodes outward from start and the other
+     * outward from dest, always advancing the one whose next node is closer, and they stop once the
+     * cheapest path through a node both have reached can no longer be beaten. Each search covers
+     * roughly a disc half as wide as the one findPathWeighted covers, so together they settle about
+     * half as many nodes. The path found costs the same as the one findPathWeighted finds.
+     *
+     * @spec.requires graph contains start and dest nodes, and for every edge of graph there is an edge
+     * of the same cost the other way, as loadGraph builds.
+     * @throws IllegalArgumentException if graph = null, start = null, dest = null.
+     * @param graph the symmetric weighted graph that is used to find the shortest distance between two nodes.
+     * @param start a node in the graph
+     * @param dest a node in the graph
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest nodes in the graph,
+     * or null if there is no path.
+     */
+    public static <E> Path<E> findPathBidirectional(WeightedGraph<E> graph, E start, E dest, SearchStats stats) {
+        if (graph == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        //if either src or dest node are not in the graph, there can be no path
+        if (!(graph.containsNode(start) && graph.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        int n = graph.nodeCount();
+        //index 0 of each array is the search from start and index 1 the one from dest. since graph is
+        // symmetric, the search from dest follows edges forwards too, and via[1][node] is the edge from
+        // parent[1][node] back to node, whose twin leads from node toward dest at the same cost.
+        double[][] cost = new double[2][n];
+        int[][] parent = new int[2][n];
+        int[][] via = new int[2][n];
+        boolean[][] finished = new boolean[2][n];
+        IndexedMinHeap[] active = {new IndexedMinHeap(n), new IndexedMinHeap(n)};
+        Arrays.fill(cost[0], Double.POSITIVE_INFINITY);
+        Arrays.fill(cost[1], Double.POSITIVE_INFINITY);
+        cost[0][startId] = 0;
+        cost[1][destId] = 0;
+        active[0].insertOrDecrease(startId, 0);
+        active[1].insertOrDecrease(destId, 0);
+        //the cheapest path found so far runs from start to meet and on from meet to dest.
+        double best = (startId == destId) ? 0 : Double.POSITIVE_INFINITY;
+        int meet = (startId == destId) ? startId : -1;
+        while (!active[0].isEmpty() && !active[1].isEmpty()) {
+            //every path not found yet leaves both settled regions, so it costs at least the sum of the
+            // two next costs.
+            if (active[0].minKey() + active[1].minKey() >= best) {
+                break;
+            }
+            int side = (active[0].minKey() <= active[1].minKey()) ? 0 : 1;
+            int minDest = active[side].removeMin();
+            if (stats != null) {
+                stats.settle();
+            }
+            finished[side][minDest] = true;
+            for (int edge = graph.firstEdge(minDest); edge < graph.endEdge(minDest); edge++) {
+                int current = graph.target(edge);
+                double newCost = cost[side][minDest] + graph.weight(edge);
+                if (stats != null) {
+                    stats.relax();
+                }
+                if (!finished[side][current] && newCost < cost[side][current]) {
+                    cost[side][current] = newCost;
+                    parent[side][current] = minDest;
+                    via[side][current] = edge;
+                    active[side].insertOrDecrease(current, newCost);
+                    if (stats != null) {
+                        stats.queue();
+                    }
+                    if (newCost + cost[1 - side][current] < best) {
+                        best = newCost + cost[1 - side][current];
+                        meet = current;
+                    }
+                }
+            }
+        }
+        if (meet == -1) {
+            // no path exists from start to dest
+            return null;
+        }
+        //walks the via edges back from meet to start, then extends the path forwards from start to
+        // meet, and from meet on to dest along the twins of the edges the search from dest took.
+        Deque<Integer> edges = new ArrayDeque<>();
+        for (int node = meet; node != startId; node = parent[0][node]) {
+            edges.push(via[0][node]);
+        }
+        Path<E> path = new Path<>(start);
+        for (int edge : edges) {
+            path = path.extend(graph.node(graph.target(edge)), graph.weight(edge));
+        }
+        for (int node = meet; node != destId; node = parent[1][node]) {
+            path = path.extend(graph.node(parent[1][node]), graph.weight(via[1][node]));
+        }
+        return path;
+    }
 
-                    // If we don't have min cost path from edge's dest node
-                    if (!finished.contains(current)) {
-                        Path<E> thePath = minPath.extend(current, edge.getLabel());
+    /**
+     * Returns the largest factor the straight-line distance between two points of a graph can be
+     * multiplied by without exceeding the cost of any path between them: the least ratio of an
+     * edge's cost to the straight-line distance between its points, shaded down slightly so that
+     * rounding can never make the bound overestimate. It converts the coordinates of campus points,
+     * in pixels, into a lower bound on walking distance, in feet.
+     *
+     * @throws IllegalArgumentException if graph = null.
+     * @param graph the weighted graph whose edges bound the factor
+     * @return the least cost per unit of straight-line distance over the edges of graph, or 0 if
+     * graph has no edge between two different points.
+     */
+    public static double heuristicScale(WeightedGraph<Point> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        double scale = Double.POSITIVE_INFINITY;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                double length = distance(graph.node(node), graph.node(graph.target(edge)));
+                if (length > 0) {
+                    scale = Math.min(scale, graph.weight(edge) / length);
+                }
+            }
+        }
+        return (scale == Double.POSITIVE_INFINITY) ? 0 : Math.max(0, scale * (1 - 1e-9));
+    }
 
-                        active.add(thePath);
+    /**
+     * Finds the minimum cost path from start to dest, queuing each node by its cost from start plus
+     * bound's lower bound on its cost to dest. The engines of this package all search with it.
+     *
+     * @spec.requires graph contains start and dest, and bound is null or never overestimates the cost
+     * from a node to dest and never falls by more than the cost of an edge along that edge.
+     * @param graph the weighted graph that is used to find the shortest distance between two nodes.
+     * @param start a node in the graph
+     * @param dest a node in the graph
+     * @param bound the lower bound on the cost from the node with each id to dest, or null for none
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest nodes in the graph,
+     * or null if there is no path.
+     */
+    static <E> Path<E> search(WeightedGraph<E> graph, E start, E dest, IntToDoubleFunction bound,
+                              SearchStats stats) {
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        double[] cost = new double[graph.nodeCount()];
+        int[] parent = new int[graph.nodeCount()];
+        int[] via = new int[graph.nodeCount()];
+        boolean[] finished = new boolean[graph.nodeCount()];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[startId] = 0;
+        //each node is in the queue at most once, and a cheaper path to it lowers its cost in place.
+        IndexedMinHeap active = new IndexedMinHeap(graph.nodeCount());
+        active.insertOrDecrease(startId, 0);
+        while (!active.isEmpty()) {
+            int minDest = active.removeMin();
+            if (stats != null) {
+                stats.settle();
+            }
+            if (minDest == destId) {
+                break;
+            }
+            finished[minDest] = true;
+            for (int edge = graph.firstEdge(minDest); edge < graph.endEdge(minDest); edge++) {
+                int current = graph.target(edge);
+                double newCost = cost[minDest] + graph.weight(edge);
+                if (stats != null) {
+                    stats.relax();
+                }
+                if (!finished[current] && newCost < cost[current]) {
+                    cost[current] = newCost;
+                    parent[current] = minDest;
+                    via[current] = edge;
+                    //the bound never overestimates and no edge costs less than it shrinks by, so a
+                    // node is settled at its minimum cost just as without it.
+                    active.insertOrDecrease(current, (bound == null) ? newCost : newCost + bound.applyAsDouble(current));
+                    if (stats != null) {
+                        stats.queue();
                     }
                 }
-                // add minDest to known set
-                finished.add(minDest);
             }
-       // }
-        // no path exists from start to dest
-        return null;
+        }
+        if (cost[destId] == Double.POSITIVE_INFINITY) {
+            // no path exists from start to dest
+            return null;
+        }
+        //walks the via edges back from dest, then extends the path forwards from start.
+        Deque<Integer> edges = new ArrayDeque<>();
+        for (int node = destId; node != startId; node = parent[node]) {
+            edges.push(via[node]);
+        }
+        Path<E> path = new Path<>(start);
+        for (int edge : edges) {
+            path = path.extend(graph.node(graph.target(edge)), graph.weight(edge));
+        }
+        return path;
+    }
+
+    //returns the straight-line distance between two points.
+    private static double distance(Point a, Point b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return Math.sqrt(dx * dx + dy * dy);
     }
 }
@@ -0,0 +1,381 @@
+package pathfinder;
+
+import graph.WeightedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>LandmarkIndex</b> is an immutable table of the costs from a few landmark points of a weighted
+ * graph to every point, and from every point to each landmark, which findPath uses to route with A*
+ * search, landmarks and the triangle inequality (ALT). For a landmark L, the cost from v to t is at
+ * least d(v, L) - d(t, L) and at least d(L, t) - d(L, v), so the largest of these over the landmarks
+ * is a lower bound on the cost left to dest, and a much tighter one than straight-line distance for
+ * points on the far side of a landmark.
+ *
+ * <p>Unlike a ContractionHierarchy, the index does not encode the shortest paths of the graph it was
+ * built over, only lower bounds on their costs, and those stay lower bounds when edges get more
+ * expensive. admits checks whether the bounds still hold for a graph with changed costs, which
+ * findPath can then search without rebuilding the index.
+ *
+ * @spec.specfield graph: WeightedGraph. The graph the costs were measured in
+ * @spec.specfield <br>landmarks: list. The points of graph the costs are measured from and to
+ * @spec.specfield <br>from: function. The cost in graph from each landmark to each point
+ * @spec.specfield <br>to: function. The cost in graph from each point to each landmark
+ */
+
+public final class LandmarkIndex {
+
+    /** The relative error admits allows between a cost it was measured and one it summed again. */
+    private static final double ROUNDING = 1e-12;
+
+    private final WeightedGraph<Point> graph;
+    private final int[] landmarks;
+    private final double[] fromLandmark;
+    private final double[] toLandmark;
+    private final static boolean CHECK_REP_ON = false;
+
+    // Abstraction Function:
+    // graph is this.graph, and this.landmarks is graph.node(landmarks[0]), ..., graph.node(landmarks[k - 1])
+    // where k = landmarks.length. For the point with id v, from(landmarks[i], v) is
+    // fromLandmark[v * k + i] and to(v, landmarks[i]) is toLandmark[v * k + i], each
+    // Double.POSITIVE_INFINITY if there is no path.
+
+    // RepInvariant:
+    // graph != null && landmarks != null && fromLandmark != null && toLandmark != null &&
+    // landmarks.length > 0 && the ids in landmarks are distinct and in [0, graph.nodeCount()) &&
+    // fromLandmark.length == toLandmark.length == graph.nodeCount() * landmarks.length &&
+    // every cost is >= 0 and not NaN && the cost between each landmark and itself is 0
+
+    /** Throws an exception if the representation invariant is violated. */
+    private void checkRep() {
+        if (CHECK_REP_ON) {
+            assert (graph != null && landmarks != null && fromLandmark != null && toLandmark != null);
+            int k = landmarks.length;
+            assert (k > 0);
+            assert (fromLandmark.length == graph.nodeCount() * k && toLandmark.length == fromLandmark.length);
+            for (int i = 0; i < k; i++) {
+                assert (0 <= landmarks[i] && landmarks[i] < graph.nodeCount());
+                for (int j = 0; j < i; j++) {
+                    assert (landmarks[i] != landmarks[j]);
+                }
+                assert (fromLandmark[landmarks[i] * k + i] == 0 && toLandmark[landmarks[i] * k + i] == 0);
+            }
+            for (int index = 0; index < fromLandmark.length; index++) {
+                assert (fromLandmark[index] >= 0 && toLandmark[index] >= 0);
+            }
+        }
+    }
+
+    //creates an index over graph from its landmarks and cost tables, which it takes ownership of.
+    private LandmarkIndex(WeightedGraph<Point> graph, int[] landmarks, double[] fromLandmark, double[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        checkRep();
+    }
+
+    /**
+     * Builds the index of a graph with landmarks chosen among some candidate points, such as the
+     * points of the campus buildings. Landmarks are chosen by farthest-point selection: the first is
+     * the candidate farthest from the first candidate, and each next one is the candidate farthest
+     * from every landmark chosen so far, so the landmarks end up around the edges of the graph, where
+     * they bound the most paths well.
+     *
+     * @throws IllegalArgumentException if graph = null, candidates = null, count &lt; 1, graph has an
+     * edge with a negative or NaN cost, or no candidate is a point of graph.
+     * @param graph the graph to build the index of
+     * @param candidates the points to choose the landmarks among; those not in graph are skipped
+     * @param count the most landmarks to choose
+     * @return a new LandmarkIndex with this.graph = graph and min(count, the number of distinct
+     * candidates in graph) landmarks
+     */
+    public static LandmarkIndex build(WeightedGraph<Point> graph, List<Point> candidates, int count) {
+        if (graph == null || candidates == null) {
+            throw new IllegalArgumentException("Graph and candidates cannot be null.");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1.");
+        }
+        int n = graph.nodeCount();
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (!(graph.weight(edge) >= 0)) {
+                throw new IllegalArgumentException("Graph cannot have negative or NaN costs.");
+            }
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Point candidate : candidates) {
+            int id = graph.idOf(candidate);
+            if (id != -1 && !ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Some candidate must be a point of graph.");
+        }
+        count = Math.min(count, ids.size());
+        Reverse reverse = new Reverse(graph);
+        int[] landmarks = new int[count];
+        double[][] from = new double[count][];
+        double[][] to = new double[count][];
+        //the least cost from any landmark chosen so far to each candidate, starting from the cost from
+        // the first candidate, so the first landmark is the candidate farthest from it.
+        double[] nearest = costs(graph.nodeCount(), ids.get(0), graph, null);
+        for (int i = 0; i < count; i++) {
+            int farthest = ids.get(0);
+            for (int id : ids) {
+                if (nearest[id] > nearest[farthest]) {
+                    farthest = id;
+                }
+            }
+            landmarks[i] = farthest;
+            from[i] = costs(n, farthest, graph, null);
+            to[i] = costs(n, farthest, null, reverse);
+            for (int node = 0; node < n; node++) {
+                nearest[node] = (i == 0) ? from[i][node] : Math.min(nearest[node], from[i][node]);
+            }
+            //the landmarks chosen so far stay below every other candidate.
+            nearest[farthest] = -1;
+        }
+        //each point's costs sit side by side, so a bound reads one or two cache lines.
+        double[] fromLandmark = new double[n * count];
+        double[] toLandmark = new double[n * count];
+        for (int i = 0; i < count; i++) {
+            for (int node = 0; node < n; node++) {
+                fromLandmark[node * count + i] = from[i][node];
+                toLandmark[node * count + i] = to[i][node];
+            }
+        }
+        return new LandmarkIndex(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    /**
+     * Returns the graph the costs of this index were measured in.
+     *
+     * @return this.graph
+     */
+    public WeightedGraph<Point> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the landmarks of this index.
+     *
+     * @return this.landmarks, in the order they were chosen
+     */
+    public List<Point> landmarks() {
+        List<Point> result = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            result.add(graph.node(landmark));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the lower bound this index gives on the cost of a path between two points.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.graph does not contain
+     * start and dest.
+     * @param start a point in the graph
+     * @param dest a point in the graph
+     * @return a cost no greater than that of any path from start to dest in this.graph, which is
+     * Double.POSITIVE_INFINITY only if there is no such path.
+     */
+    public double lowerBound(Point start, Point dest) {
+        int startId = idOf(start);
+        int destId = idOf(dest);
+        int k = landmarks.length;
+        return bound(startId, Arrays.copyOfRange(toLandmark, destId * k, destId * k + k),
+                Arrays.copyOfRange(fromLandmark, destId * k, destId * k + k));
+    }
+
+    /**
+     * Returns true if the bounds of this index still hold in a graph with the same points as
+     * this.graph but changed edges, such as edges that got more expensive, so findPath can search
+     * that graph. That is the case if no edge of it costs less than the bound it crosses drops by.
+     *
+     * @throws IllegalArgumentException if other = null.
+     * @param other the graph to check
+     * @return true if other has the points of this.graph, with the same ids, and for each edge of
+     * other from u to v costing w and each landmark L, from(L, v) - from(L, u) &lt;= w and
+     * to(u, L) - to(v, L) &lt;= w.
+     */
+    public boolean admits(WeightedGraph<Point> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        if (other.nodeCount() != graph.nodeCount()) {
+            return false;
+        }
+        int k = landmarks.length;
+        for (int u = 0; u < other.nodeCount(); u++) {
+            if (!other.node(u).equals(graph.node(u))) {
+                return false;
+            }
+            for (int edge = other.firstEdge(u); edge < other.endEdge(u); edge++) {
+                int v = other.target(edge);
+                double w = other.weight(edge);
+                if (!(w >= 0)) {
+                    return false;
+                }
+                for (int i = 0; i < k; i++) {
+                    //the costs were summed edge by edge, so a difference can exceed the edge it spans
+                    // by a rounding error. an edge that makes a point reachable from or to a landmark
+                    // gives an infinite difference, and one between two unreachable points a NaN,
+                    // which passes.
+                    double fromU = fromLandmark[u * k + i];
+                    double toV = toLandmark[v * k + i];
+                    if (fromLandmark[v * k + i] - fromU > w + ROUNDING * fromU
+                            || toLandmark[u * k + i] - toV > w + ROUNDING * toV) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the minimum cost path between two points of this.graph with A* search, bounding the cost
+     * left from each point by the landmarks. The path found costs the same as the one
+     * Dijkstra.findPathWeighted finds.
+     *
+     * @throws IllegalArgumentException if start = null, dest = null, or this.graph does not contain
+     * start and dest.
+     * @param start a point in the graph
+     * @param dest a point in the graph
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest points in the graph,
+     * or null if there is no path.
+     */
+    public Path<Point> findPath(Point start, Point dest, SearchStats stats) {
+        return findPath(graph, start, dest, stats);
+    }
+
+    /**
+     * Finds the minimum cost path between two points of a graph this index admits, such as this.graph
+     * with some edges made more expensive, with A* search bounded by the landmarks.
+     *
+     * @spec.requires admits(other)
+     * @throws IllegalArgumentException if other = null, start = null, dest = null, other does not have
+     * as many points as this.graph, or other does not contain start and dest.
+     * @param other the graph to search
+     * @param start a point in the graph
+     * @param dest a point in the graph
+     * @param stats the counts to add the work of this search to, or null to not count it
+     * @spec.modifies stats
+     * @return a Path that represents the minimum cost path between start and dest points in other,
+     * or null if there is no path.
+     */
+    public Path<Point> findPath(WeightedGraph<Point> other, Point start, Point dest, SearchStats stats) {
+        if (other == null || start == null || dest == null) {
+            throw new IllegalArgumentException("Graph, start, and dest cannot be null.");
+        }
+        if (other.nodeCount() != graph.nodeCount()) {
+            throw new IllegalArgumentException("Graph must have the points this index was built over.");
+        }
+        if (!(other.containsNode(start) && other.containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        int destId = other.idOf(dest);
+        int k = landmarks.length;
+        double[] destTo = Arrays.copyOfRange(toLandmark, destId * k, destId * k + k);
+        double[] destFrom = Arrays.copyOfRange(fromLandmark, destId * k, destId * k + k);
+        return Dijkstra.search(other, start, dest, node -> bound(node, destTo, destFrom), stats);
+    }
+
+    //returns the largest bound the landmarks give on the cost from node to the point whose costs to
+    // and from the landmarks are destTo and destFrom. a difference of two infinite costs says
+    // nothing, so it is skipped.
+    private double bound(int node, double[] destTo, double[] destFrom) {
+        int k = landmarks.length;
+        int base = node * k;
+        double best = 0;
+        for (int i = 0; i < k; i++) {
+            double viaTo = toLandmark[base + i] - destTo[i];
+            double viaFrom = destFrom[i] - fromLandmark[base + i];
+            if (viaTo > best) {
+                best = viaTo;
+            }
+            if (viaFrom > best) {
+                best = viaFrom;
+            }
+        }
+        return best;
+    }
+
+    //returns the id of point, throwing an IllegalArgumentException if it is not in the graph.
+    private int idOf(Point point) {
+        if (point == null) {
+            throw new IllegalArgumentException("Points cannot be null.");
+        }
+        int id = graph.idOf(point);
+        if (id == -1) {
+            throw new IllegalArgumentException("Graph must contain start and dest nodes of path");
+        }
+        return id;
+    }
+
+    //returns the cost from source to every point, following the edges of graph forwards if graph is
+    // not null, and otherwise those of reverse, that is the edges of the graph backwards, which gives
+    // the cost from every point to source.
+    private static double[] costs(int n, int source, WeightedGraph<Point> graph, Reverse reverse) {
+        double[] cost = new double[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        boolean[] finished = new boolean[n];
+        IndexedMinHeap active = new IndexedMinHeap(n);
+        cost[source] = 0;
+        active.insertOrDecrease(source, 0);
+        while (!active.isEmpty()) {
+            int node = active.removeMin();
+            finished[node] = true;
+            int first = (graph != null) ? graph.firstEdge(node) : reverse.offsets[node];
+            int end = (graph != null) ? graph.endEdge(node) : reverse.offsets[node + 1];
+            for (int edge = first; edge < end; edge++) {
+                int next = (graph != null) ? graph.target(edge) : reverse.sources[edge];
+                double newCost = cost[node] + ((graph != null) ? graph.weight(edge) : reverse.weights[edge]);
+                if (!finished[next] && newCost < cost[next]) {
+                    cost[next] = newCost;
+                    active.insertOrDecrease(next, newCost);
+                }
+            }
+        }
+        return cost;
+    }
+
+    //the edges of a weighted graph turned around, in the same compressed sparse row form: the edges
+    // into the point with id v come from sources[offsets[v], offsets[v + 1]) at the matching weights.
+    private static final class Reverse {
+        private final int[] offsets;
+        private final int[] sources;
+        private final double[] weights;
+
+        private Reverse(WeightedGraph<Point> graph) {
+            int n = graph.nodeCount();
+            offsets = new int[n + 1];
+            sources = new int[graph.edgeCount()];
+            weights = new double[graph.edgeCount()];
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                offsets[graph.target(edge) + 1]++;
+            }
+            for (int node = 0; node < n; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            int[] next = Arrays.copyOf(offsets, n);
+            for (int node = 0; node < n; node++) {
+                for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                    int slot = next[graph.target(edge)]++;
+                    sources[slot] = node;
+                    weights[slot] = graph.weight(edge);
+                }
+            }
+        }
+    }
+}
@@ -11,8 +11,7 @@
 
 package pathfinder;
 
-import graph.DirectedGraph;
-import graph.DirectedLabeledEdge;
+import graph.WeightedGraph;
 import pathfinder.datastructures.Path;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
@@ -39,7 +38,14 @@ different ways, without requiring a lot of work to change things over.
  */
 public class ModelConnector {
 
-  private DirectedGraph<Point, Double> campusGraph;
+  //the campus graph with each point given an int id once, so queries don't hash points or box weights
+  private WeightedGraph<Point> campusGraph;
+  //the least walking distance per unit of straight-line distance on campus, which A* scales by
+  private double heuristicScale;
+  //the contraction hierarchy of campusGraph, prepared before any query so none of them waits on it
+  private final ContractionHierarchy hierarchy;
+  //the landmark index of campusGraph over the buildings, or null until the first query that routes with it
+  private LandmarkIndex landmarks;
   //maps short name to campus building
   private Map<String, CampusBuilding> shortNameMap;
   //maps short name to point
@@ -50,15 +56,31 @@ public class ModelConnector {
   private Map<Point, CampusBuilding> pointToBuilding;
   private final static boolean CHECK_REP_ON = false;
 
+  /**
+   * The file the contraction hierarchy of the campus is kept in, so it is only built once for each
+   * version of campus_paths.tsv. It lives under build/ rather than next to the data, since the data
+   * directory is part of the source tree.
+   */
+  private static final java.nio.file.Path HIERARCHY_FILE =
+          java.nio.file.Paths.get("build/pathfinder/campus_paths.ch");
+
+  /** The number of buildings the ALT engine measures costs to and from. */
+  private static final int LANDMARK_COUNT = 8;
+
 
   // Abstraction Function:
     // campusGraph is all of the possible paths on UW campus
     // shortNameMap is all the buildings on the UW campus
     // pointToBuilding is the coordinates of all of the buildings on the UW campus.
+    // heuristicScale is the factor A* turns straight-line distances into walking distances with.
+    // hierarchy is the contraction hierarchy of campusGraph.
+    // landmarks, once it is not null, holds the costs to and from some buildings in campusGraph.
 
   // RepInvariant:
     // campusGraph != null && shortNameMap != null && shortToLongMap != null &&
-    // pointToBuilding != null
+    // pointToBuilding != null && heuristicScale >= 0 &&
+    // hierarchy != null && hierarchy.graph() == campusGraph &&
+    // (landmarks == null || landmarks.graph() == campusGraph)
     // Each key and value shortToLongMap != null &&
     // each key and value and the contents of the value in shortNameMap != null &&
     // each key and value and contents of the key and value in pointToBuilding != null
@@ -71,6 +93,9 @@ public class ModelConnector {
             assert(shortNameMap != null);
             assert (shortToLongMap != null);
             assert (pointToBuilding != null);
+            assert (heuristicScale >= 0);
+            assert (hierarchy != null && hierarchy.graph() == campusGraph);
+            assert (landmarks == null || landmarks.graph() == campusGraph);
             for (String shortName: shortNameMap.keySet()) {
                 //checks each shortName != null
                 assert (shortName != null);
@@ -102,6 +127,8 @@ public class ModelConnector {
    * pathways and buildings or locations of interest on the campus of the University
    * of Washington, Seattle. When this constructor completes, the dataset is loaded
    * and prepared, and any method may be called on this object to query the data.
+   * This includes the contraction hierarchy of the campus, which is loaded from
+   * its file, or built and saved there if the file is missing or out of date.
    */
   public ModelConnector() {
     List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings();
@@ -120,7 +147,9 @@ public class ModelConnector {
       }
     }
 
-    campusGraph = Dijkstra.loadGraph(paths);
+    campusGraph = new WeightedGraph<>(Dijkstra.loadGraph(paths));
+    heuristicScale = Dijkstra.heuristicScale(campusGraph);
+    hierarchy = ContractionHierarchy.loadOrBuild(campusGraph, HIERARCHY_FILE);
     checkRep();
   }
 
@@ -166,22 +195,79 @@ public class ModelConnector {
    *                                  this campus map.
    */
   public Path<Point> findShortestPath(String startShortName, String endShortName) {
+    return findShortestPath(startShortName, endShortName, RoutingEngine.DIJKSTRA);
+  }
+
+  /**
+   * Finds the shortest path, by distance, between the two provided buildings with the given
+   * engine. Every engine finds a path of the same length.
+   *
+   * @param startShortName The short name of the building at the beginning of this path.
+   * @param endShortName   The short name of the building at the end of this path.
+   * @param engine         The search to find the path with.
+   * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+   * if none exists.
+   * @throws IllegalArgumentException if {@code startBuilding}, {@code endBuilding} or
+   *                                  {@code engine} are {@literal null}, or the names are not
+   *                                  valid short names of buildings in this campus map.
+   */
+  public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingEngine engine) {
+    return findShortestPath(startShortName, endShortName, engine, null);
+  }
+
+  /**
+   * Finds the shortest path, by distance, between the two provided buildings with the given
+   * engine, and counts the work the search did.
+   *
+   * @param startShortName The short name of the building at the beginning of this path.
+   * @param endShortName   The short name of the building at the end of this path.
+   * @param engine         The search to find the path with.
+   * @param stats          The counts to add the work of the search to, or {@literal null} to not
+   *                       count it.
+   * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+   * if none exists.
+   * @throws IllegalArgumentException if {@code startBuilding}, {@code endBuilding} or
+   *                                  {@code engine} are {@literal null}, or the names are not
+   *                                  valid short names of buildings in this campus map.
+   * @spec.modifies stats
+   */
+  public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingEngine engine,
+                                      SearchStats stats) {
     checkRep();
-    if(startShortName == null || endShortName == null) {
-      throw new IllegalArgumentException("startShortName and endShortName cannot be null.");
+    if(startShortName == null || endShortName == null || engine == null) {
+      throw new IllegalArgumentException("startShortName, endShortName and engine cannot be null.");
     }
     if ( (!shortNameMap.containsKey(startShortName)) ||  (!shortNameMap.containsKey(endShortName))) {
       throw new IllegalArgumentException("startShortName and endShortName must be valid short names of buildings" +
               "in this campus map.");
     }
-    Path<Point> path = Dijkstra.findPath(campusGraph, shortToPoint.get(startShortName),
-            shortToPoint.get(endShortName));
-    return path;
+    Point start = shortToPoint.get(startShortName);
+    Point end = shortToPoint.get(endShortName);
+    switch (engine) {
+      case A_STAR:
+        return Dijkstra.findPathAStar(campusGraph, start, end, heuristicScale, stats);
+      case CONTRACTION_HIERARCHY:
+        return hierarchy.findPath(start, end, stats);
+      case ALT:
+        return landmarks().findPath(start, end, stats);
+      case BIDIRECTIONAL:
+        return Dijkstra.findPathBidirectional(campusGraph, start, end, stats);
+      case DIJKSTRA:
+      default:
+        return Dijkstra.findPathWeighted(campusGraph, start, end, stats);
+    }
   }
 
-
-
-
+  //returns the landmark index of campusGraph, choosing the landmarks among the buildings in order of
+  // short name, the first time it is needed.
+  private synchronized LandmarkIndex landmarks() {
+    if (landmarks == null) {
+      landmarks = LandmarkIndex.build(campusGraph, new ArrayList<>(new TreeMap<>(shortToPoint).values()),
+              LANDMARK_COUNT);
+      checkRep();
+    }
+    return landmarks;
+  }
 
 }
 
@@ -0,0 +1,39 @@
+package pathfinder;
+
+/**
+ * <b>RoutingEngine</b> names the shortest path searches ModelConnector can route with. Every engine
+ * finds a path of the same, minimum, cost; they differ in how much of the campus they search to
+ * find it.
+ */
+
+public enum RoutingEngine {
+
+    /** Dijkstra's algorithm, which settles every point closer to the start than the end is. */
+    DIJKSTRA,
+
+    /**
+     * A* search, which orders points by their cost from the start plus the straight-line distance
+     * left to the end, so it settles the points that lie toward the end first.
+     */
+    A_STAR,
+
+    /**
+     * A query over a contraction hierarchy of the campus, which searches up the hierarchy from both
+     * ends and settles a few dozen points. The hierarchy is built, or loaded from the file it was
+     * saved to, when the {@link ModelConnector} is created.
+     */
+    CONTRACTION_HIERARCHY,
+
+    /**
+     * A* search bounded by the costs to and from a few landmark buildings (ALT), which gives far
+     * tighter bounds than straight-line distance. The landmarks are measured the first time this
+     * engine is used.
+     */
+    ALT,
+
+    /**
+     * Dijkstra's algorithm run from both ends at once until the two searches meet, which settles
+     * about half as many points as searching from the start alone.
+     */
+    BIDIRECTIONAL
+}
@@ -0,0 +1,82 @@
+package pathfinder;
+
+/**
+ * <b>SearchStats</b> is a mutable tally of the work a shortest path search did, so engines can be
+ * compared on the same query. A search given a SearchStats adds to its counts, so one SearchStats
+ * can total several searches.
+ *
+ * @spec.specfield settled: int. The number of nodes whose minimum cost from the start was fixed
+ * @spec.specfield <br>relaxed: int. The number of edges looked at for a cheaper path to their dest
+ * @spec.specfield <br>queued: int. The number of times a node was added to the queue or had its
+ * cost in the queue lowered
+ */
+
+public final class SearchStats {
+
+    private long settled;
+    private long relaxed;
+    private long queued;
+
+    // Abstraction Function:
+    // this.settled, this.relaxed and this.queued are the fields of the same names.
+
+    // RepInvariant:
+    // settled >= 0 && relaxed >= 0 && queued >= 0
+
+    /**Creates a new SearchStats with every count at zero.
+     * @spec.effects constructs a new SearchStats with settled = relaxed = queued = 0
+     */
+    public SearchStats() {
+    }
+
+    /**Returns the number of nodes settled.
+     * @return this.settled
+     */
+    public long settled() {
+        return settled;
+    }
+
+    /**Returns the number of edges relaxed.
+     * @return this.relaxed
+     */
+    public long relaxed() {
+        return relaxed;
+    }
+
+    /**Returns the number of times a node was queued or had its cost in the queue lowered.
+     * @return this.queued
+     */
+    public long queued() {
+        return queued;
+    }
+
+    /**Sets every count back to zero.
+     * @spec.modifies this
+     * @spec.effects sets settled, relaxed and queued to 0
+     */
+    public void reset() {
+        settled = 0;
+        relaxed = 0;
+        queued = 0;
+    }
+
+    //counts a node settled.
+    void settle() {
+        settled++;
+    }
+
+    //counts an edge relaxed.
+    void relax() {
+        relaxed++;
+    }
+
+    //counts a node queued.
+    void queue() {
+        queued++;
+    }
+
+    @Override
+    public String toString() {
+        return "settled=" + settled + ", relaxed=" + relaxed + ", queued=" + queued;
+    }
+}
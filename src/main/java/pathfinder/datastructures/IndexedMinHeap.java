@@ -0,0 +1,267 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * This represents a mutable priority queue of int ids, each with a double key, that holds each id
+ * at most once. It is a d-ary min-heap that also records where in the heap each id sits, so the
+ * key of an id already in the queue can be lowered in place instead of adding the id again, and
+ * the queue never holds more entries than there are ids.
+ *
+ * <p>Ids are expected to be small and dense, such as the node ids of a graph, since the queue
+ * keeps an array slot for every id up to the largest one it has held. Ties between equal keys
+ * are broken in favor of the smaller id, so the order ids are removed in does not depend on the
+ * order they were added in.
+ */
+public final class IndexedMinHeap {
+
+  // AF(this) =
+  //      the ids in the queue => heap[0], ..., heap[size - 1]
+  //      the key of each id in the queue => keys[id], also kept as heapKeys[position[id]]
+  //      the id removeMin returns next => heap[0]
+
+  // Rep Invariant:
+  //      heap != null && heapKeys != null && position != null && keys != null &&
+  //      heapKeys.length == heap.length &&
+  //      position.length == keys.length &&
+  //      0 <= size <= heap.length &&
+  //      for each 0 <= i < size, position[heap[i]] == i && heapKeys[i] == keys[heap[i]] &&
+  //      for each id not among heap[0, size), position[id] == -1 &&
+  //      for each 0 < i < size, (heapKeys[(i - 1) / ARITY], heap[(i - 1) / ARITY]) is no greater
+  //          than (heapKeys[i], heap[i]), ordered by key and then by id
+
+  /** The number of children of each entry of the heap. */
+  private static final int ARITY = 4;
+  private final static boolean CHECK_REP_ON = false;
+
+  /**
+   * The ids in the queue, laid out as a d-ary heap.
+   */
+  private int[] heap;
+
+  /**
+   * The key of each entry of heap, kept alongside it so sifting compares keys without looking
+   * them up by id.
+   */
+  private double[] heapKeys;
+
+  /**
+   * The index in heap of each id, or -1 if the id is not in the queue.
+   */
+  private int[] position;
+
+  /**
+   * The key of each id in the queue.
+   */
+  private double[] keys;
+
+  /**
+   * The number of ids in the queue.
+   */
+  private int size;
+
+  /**
+   * Creates a new, empty queue with room for the ids [0, capacity) without growing.
+   *
+   * @param capacity the number of ids expected to be added to the queue
+   * @throws IllegalArgumentException if capacity &lt; 0
+   */
+  public IndexedMinHeap(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity cannot be negative.");
+    }
+    heap = new int[Math.max(capacity, 1)];
+    heapKeys = new double[Math.max(capacity, 1)];
+    position = new int[Math.max(capacity, 1)];
+    keys = new double[Math.max(capacity, 1)];
+    Arrays.fill(position, -1);
+    size = 0;
+    checkRep();
+  }
+
+  /**
+   * @return the number of ids in the queue.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return {@literal true} iff the queue holds no ids.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param id the id to look for
+   * @return {@literal true} iff id is in the queue.
+   */
+  public boolean contains(int id) {
+    return id >= 0 && id < position.length && position[id] != -1;
+  }
+
+  /**
+   * @param id an id in the queue
+   * @return the key of id.
+   * @throws IllegalArgumentException if id is not in the queue.
+   */
+  public double key(int id) {
+    if (!contains(id)) {
+      throw new IllegalArgumentException(id + " is not in the queue.");
+    }
+    return keys[id];
+  }
+
+  /**
+   * Adds an id to the queue with a key, or lowers its key if it is already in the queue with a
+   * greater one.
+   *
+   * @param id  the id to add
+   * @param key the key of id
+   * @return {@literal true} iff the queue changed, that is if id was not in the queue or had a
+   * greater key.
+   * @throws IllegalArgumentException if id &lt; 0 or key is NaN.
+   */
+  public boolean insertOrDecrease(int id, double key) {
+    if (id < 0 || Double.isNaN(key)) {
+      throw new IllegalArgumentException("id cannot be negative and key cannot be NaN.");
+    }
+    if (id >= position.length) {
+      int length = Math.max(id + 1, 2 * position.length);
+      int old = position.length;
+      position = Arrays.copyOf(position, length);
+      keys = Arrays.copyOf(keys, length);
+      Arrays.fill(position, old, length, -1);
+    }
+    int index = position[id];
+    if (index == -1) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, 2 * heap.length);
+        heapKeys = Arrays.copyOf(heapKeys, heap.length);
+      }
+      index = size++;
+    } else if (keys[id] <= key) {
+      return false;
+    }
+    keys[id] = key;
+    siftUp(id, key, index);
+    checkRep();
+    return true;
+  }
+
+  /**
+   * @return the least key in the queue.
+   * @throws IllegalStateException if the queue is empty.
+   */
+  public double minKey() {
+    if (size == 0) {
+      throw new IllegalStateException("The queue is empty.");
+    }
+    return heapKeys[0];
+  }
+
+  /**
+   * Removes the id with the least key from the queue, or the least such id if there are several.
+   *
+   * @return the id removed.
+   * @throws IllegalStateException if the queue is empty.
+   */
+  public int removeMin() {
+    if (size == 0) {
+      throw new IllegalStateException("The queue is empty.");
+    }
+    int min = heap[0];
+    position[min] = -1;
+    size--;
+    if (size > 0) {
+      siftDown(heap[size], heapKeys[size], 0);
+    }
+    checkRep();
+    return min;
+  }
+
+  /**
+   * Removes every id from the queue, keeping the room it has grown to.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      position[heap[i]] = -1;
+    }
+    size = 0;
+    checkRep();
+  }
+
+  //moves id, whose key is key, up from index until its parent is no greater than it, and places
+  // it there.
+  private void siftUp(int id, double key, int index) {
+    while (index > 0) {
+      int parent = (index - 1) / ARITY;
+      if (!less(key, id, heapKeys[parent], heap[parent])) {
+        break;
+      }
+      place(heap[parent], heapKeys[parent], index);
+      index = parent;
+    }
+    place(id, key, index);
+  }
+
+  //moves id, whose key is key, down from index until none of its children is less than it, and
+  // places it there.
+  private void siftDown(int id, double key, int index) {
+    while (true) {
+      int first = ARITY * index + 1;
+      if (first >= size) {
+        break;
+      }
+      int least = first;
+      for (int child = first + 1; child < Math.min(first + ARITY, size); child++) {
+        if (less(heapKeys[child], heap[child], heapKeys[least], heap[least])) {
+          least = child;
+        }
+      }
+      if (!less(heapKeys[least], heap[least], key, id)) {
+        break;
+      }
+      place(heap[least], heapKeys[least], index);
+      index = least;
+    }
+    place(id, key, index);
+  }
+
+  //puts id, whose key is key, at index of heap.
+  private void place(int id, double key, int index) {
+    heap[index] = id;
+    heapKeys[index] = key;
+    position[id] = index;
+  }
+
+  //returns true if id a with key keyA comes before id b with key keyB, by key and then by id.
+  private static boolean less(double keyA, int a, double keyB, int b) {
+    return keyA < keyB || (keyA == keyB && a < b);
+  }
+
+  /**
+   * Throws an exception if the representation invariant is violated.
+   */
+  private void checkRep() {
+    if (CHECK_REP_ON) {
+      assert heap != null && heapKeys != null && position != null && keys != null;
+      assert heapKeys.length == heap.length;
+      assert position.length == keys.length;
+      assert 0 <= size && size <= heap.length;
+      int held = 0;
+      for (int id = 0; id < position.length; id++) {
+        if (position[id] != -1) {
+          held++;
+          assert heap[position[id]] == id && heapKeys[position[id]] == keys[id];
+        }
+      }
+      assert held == size;
+      for (int i = 1; i < size; i++) {
+        int parent = (i - 1) / ARITY;
+        assert !less(heapKeys[i], heap[i], heapKeys[parent], heap[parent]);
+      }
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package graph.implTest;
+import static org.junit.Assert.*;
+
+import graph.CompactGraph;
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * CompactGraph class.
+ * <p>
+ */
+
+public class CompactGraphTest {
+
+    private DirectedGraph<String, String> graph;
+
+    private final String n1 = "n1";
+    private final String n2 = "n2";
+    private final String n3 = "n3";
+    private final Comparator<DirectedLabeledEdge<String, String>> byLabel =
+            Comparator.comparing(DirectedLabeledEdge::getLabel);
+
+    @Before
+    public void setUp() {
+        graph = new DirectedGraph<>();
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addNode(n3);
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n2, "c"));
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n3, "a"));
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n1, "b"));
+        graph.addEdge(new DirectedLabeledEdge<>(n3, n1, "d"));
+    }
+
+    //returns the out-bound edges of node in compact as a set.
+    private Set<DirectedLabeledEdge<String, String>> children(CompactGraph<String, String> compact,
+                                                              String node) {
+        Set<DirectedLabeledEdge<String, String>> children = new HashSet<>();
+        int id = compact.idOf(node);
+        for (int edge = compact.firstEdge(id); edge < compact.endEdge(id); edge++) {
+            children.add(compact.edge(id, edge));
+        }
+        return children;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  constructor
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //compacting a null graph throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullGraph() {
+        new CompactGraph<String, String>(null);
+    }
+
+    @Test //compacting an empty graph gives a graph with no nodes and no edges
+    public void testEmptyGraph() {
+        CompactGraph<String, String> compact = new CompactGraph<>(new DirectedGraph<String, String>());
+        assertEquals(0, compact.nodeCount());
+        assertEquals(0, compact.edgeCount());
+    }
+
+    @Test //the compact graph has the same number of nodes and edges
+    public void testSize() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        assertEquals(3, compact.nodeCount());
+        assertEquals(4, compact.edgeCount());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  nodes
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    @Test //each node is given an id that maps back to the node
+    public void testIds() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        for (String node : graph.listNodes()) {
+            assertTrue(compact.containsNode(node));
+            assertEquals(node, compact.node(compact.idOf(node)));
+        }
+    }
+
+    @Test //a node that is not in the graph has no id
+    public void testMissingNode() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        assertFalse(compact.containsNode("n4"));
+        assertEquals(-1, compact.idOf("n4"));
+        assertEquals(-1, compact.idOf(null));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  edges
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    @Test //the out-bound edges of each node are the same as in the graph it was built from
+    public void testChildren() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        for (String node : graph.listNodes()) {
+            assertEquals(graph.listChildren(node), children(compact, node));
+        }
+    }
+
+    @Test //the out-bound edges of each node are stored in order when given a comparator
+    public void testOrderedChildren() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph, byLabel);
+        int id = compact.idOf(n1);
+        assertEquals(byLabel, compact.order());
+        assertEquals("a", compact.label(compact.firstEdge(id)));
+        assertEquals("b", compact.label(compact.firstEdge(id) + 1));
+        assertEquals("c", compact.label(compact.firstEdge(id) + 2));
+        assertEquals(compact.idOf(n2), compact.target(compact.firstEdge(id) + 2));
+    }
+
+    @Test //label ids follow the order of the labels
+    public void testLabelIds() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        assertEquals(4, compact.labelCount());
+        for (int edge = 0; edge < compact.entryCount(); edge++) {
+            for (int other = 0; other < compact.entryCount(); other++) {
+                assertEquals(Integer.signum(compact.label(edge).compareTo(compact.label(other))),
+                        Integer.signum(Integer.compare(compact.labelId(edge), compact.labelId(other))));
+            }
+        }
+    }
+
+    //compacting a null graph in sorted form throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testSortedNullGraph() {
+        CompactGraph.<String, String>sorted(null);
+    }
+
+    @Test //a sorted graph gives node ids in node order and stores entries by dest node
+    public void testSorted() {
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n2, "a"));
+        CompactGraph<String, String> compact = CompactGraph.sorted(graph);
+        assertTrue(compact.isSorted());
+        assertFalse(new CompactGraph<>(graph, byLabel).isSorted());
+        assertEquals(0, compact.idOf(n1));
+        assertEquals(1, compact.idOf(n2));
+        assertEquals(2, compact.idOf(n3));
+        int id = compact.idOf(n1);
+        List<DirectedLabeledEdge<String, String>> expected = Arrays.asList(
+                new DirectedLabeledEdge<>(n1, n1, "b"),
+                new DirectedLabeledEdge<>(n1, n2, "a"),
+                new DirectedLabeledEdge<>(n1, n3, "a"));
+        List<DirectedLabeledEdge<String, String>> actual = new ArrayList<>();
+        for (int edge = compact.firstEdge(id); edge < compact.endEdge(id); edge++) {
+            actual.add(compact.edge(id, edge));
+        }
+        assertEquals(expected, actual);
+    }
+
+    //building a sorted graph from arrays whose targets are out of order throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testSortedArraysUnsortedTargets() {
+        CompactGraph.sorted(Arrays.asList(n1, n2), Arrays.asList("a"), new int[] {0, 2, 2},
+                new int[] {1, 0}, new int[] {0, 1, 2}, new int[] {0, 0});
+    }
+
+    @Test //a sorted graph built from the arrays of another has the same nodes and edges
+    public void testSortedArrays() {
+        CompactGraph<String, String> compact = CompactGraph.sorted(graph);
+        List<String> nodes = new ArrayList<>();
+        for (int id = 0; id < compact.nodeCount(); id++) {
+            nodes.add(compact.node(id));
+        }
+        List<String> labels = new ArrayList<>();
+        for (int labelId = 0; labelId < compact.labelCount(); labelId++) {
+            labels.add(compact.labelOf(labelId));
+        }
+        int[] offsets = new int[compact.nodeCount() + 1];
+        for (int id = 0; id < compact.nodeCount(); id++) {
+            offsets[id + 1] = compact.endEdge(id);
+        }
+        int[] targets = new int[compact.entryCount()];
+        int[] labelOffsets = new int[compact.entryCount() + 1];
+        for (int entry = 0; entry < compact.entryCount(); entry++) {
+            targets[entry] = compact.target(entry);
+            labelOffsets[entry + 1] = compact.endLabel(entry);
+        }
+        int[] labelIds = new int[compact.edgeCount()];
+        for (int index = 0; index < compact.edgeCount(); index++) {
+            labelIds[index] = compact.labelIdAt(index);
+        }
+        CompactGraph<String, String> copy = CompactGraph.sorted(nodes, labels, offsets, targets, labelOffsets, labelIds);
+        assertTrue(copy.isSorted());
+        assertEquals(compact.edgeCount(), copy.edgeCount());
+        for (int id = 0; id < compact.nodeCount(); id++) {
+            for (int edge = compact.firstEdge(id); edge < compact.endEdge(id); edge++) {
+                assertEquals(compact.edge(id, edge), copy.edge(id, edge));
+            }
+        }
+    }
+
+    @Test //parallel edges share one entry that lists their labels in order
+    public void testParallelEdges() {
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n2, "a"));
+        graph.addEdge(new DirectedLabeledEdge<>(n1, n2, "e"));
+        for (CompactGraph<String, String> compact : Arrays.asList(new CompactGraph<>(graph),
+                new CompactGraph<>(graph, byLabel), CompactGraph.sorted(graph))) {
+            assertEquals(6, compact.edgeCount());
+            assertEquals(4, compact.entryCount());
+            int id = compact.idOf(n1);
+            assertEquals(3, compact.endEdge(id) - compact.firstEdge(id));
+            for (int edge = compact.firstEdge(id); edge < compact.endEdge(id); edge++) {
+                if (compact.target(edge) == compact.idOf(n2)) {
+                    assertEquals("a", compact.label(edge));
+                    List<String> labels = new ArrayList<>();
+                    for (int label = compact.firstLabel(edge); label < compact.endLabel(edge); label++) {
+                        labels.add(compact.labelAt(label));
+                    }
+                    assertEquals(Arrays.asList("a", "c", "e"), labels);
+                }
+            }
+        }
+    }
+
+    @Test //changing the original graph does not change the compact graph
+    public void testCopyIsIndependent() {
+        CompactGraph<String, String> compact = new CompactGraph<>(graph);
+        graph.removeNode(n3);
+        assertTrue(compact.containsNode(n3));
+        assertEquals(4, compact.edgeCount());
+    }
+}
@@ -0,0 +1,275 @@
+package graph.implTest;
+import static org.junit.Assert.*;
+
+import graph.ConcurrentDirectedGraph;
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ConcurrentDirectedGraph class.
+ * <p>
+ */
+
+public class ConcurrentDirectedGraphTest {
+
+    private ConcurrentDirectedGraph<String, String> graph;
+    private Set<DirectedLabeledEdge<String, String>> edges;
+
+    private final String n1 = "n1";
+    private final String n2 = "n2";
+    private final DirectedLabeledEdge<String, String> e1 = new DirectedLabeledEdge<>(n1, n2, "label1");
+
+    @Before
+    public void setUp() {
+        graph = new ConcurrentDirectedGraph<>();
+        edges = new HashSet<>();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  single thread
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //adding a null node to graph throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddNullNode() {
+        graph.addNode(null);
+    }
+
+    //adding an edge whose dest node doesn't exist throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddEdgeWithoutDestNode() {
+        graph.addNode(n1);
+        graph.addEdge(e1);
+    }
+
+    //adding an edge whose src node doesn't exist throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddEdgeWithoutSrcNode() {
+        graph.addNode(n2);
+        graph.addEdge(e1);
+    }
+
+    //removing an edge that doesn't exist throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testRemoveEdgeThatDoesntExist() {
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.removeEdge(e1);
+    }
+
+    //removing a node that doesn't exist throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testRemoveNodeThatDoesntExist() {
+        graph.removeNode(n1);
+    }
+
+    @Test //adding nodes and edges twice returns false the second time
+    public void testAddTwice() {
+        assertTrue(graph.addNode(n1));
+        assertFalse(graph.addNode(n1));
+        graph.addNode(n2);
+        assertTrue(graph.addEdge(e1));
+        assertFalse(graph.addEdge(new DirectedLabeledEdge<>(n1, n2, "label1")));
+        assertTrue(graph.containsEdge(e1));
+    }
+
+    @Test //an edge is listed as a child of its src node and a parent of its dest node
+    public void testListChildrenAndParents() {
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addEdge(e1);
+        edges.add(e1);
+        assertEquals(edges, graph.listChildren(n1));
+        assertEquals(edges, graph.listParents(n2));
+        assertTrue(graph.listParents(n1).isEmpty());
+    }
+
+    @Test //removing a node removes its in-bound and out-bound edges
+    public void testRemoveNode() {
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addEdge(e1);
+        graph.addEdge(new DirectedLabeledEdge<>(n2, n1, "label2"));
+        graph.addEdge(new DirectedLabeledEdge<>(n2, n2, "label3"));
+        assertTrue(graph.removeNode(n2));
+        assertFalse(graph.containsNode(n2));
+        assertTrue(graph.listChildren(n1).isEmpty());
+        assertTrue(graph.listParents(n1).isEmpty());
+    }
+
+    @Test //copying a graph gives the same nodes and edges
+    public void testCopy() {
+        DirectedGraph<String, String> original = new DirectedGraph<>();
+        original.addNode(n1);
+        original.addNode(n2);
+        original.addEdge(e1);
+        ConcurrentDirectedGraph<String, String> copy = new ConcurrentDirectedGraph<>(original);
+        assertEquals(original.listNodes(), copy.listNodes());
+        assertEquals(original.listChildren(n1), copy.listChildren(n1));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  many threads
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    @Test(timeout = 10000) //readers can iterate while writers add and remove nodes and edges,
+    // and the graph is consistent once the writers finish
+    public void testConcurrentReadersAndWriters() throws InterruptedException {
+        int nodeCount = 50;
+        for (int i = 0; i < nodeCount; i++) {
+            graph.addNode("n" + i);
+        }
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int seed = w;
+            writers.add(new Thread(() -> {
+                try {
+                    for (int k = 0; k < 5000; k++) {
+                        String src = "n" + ((k * 7 + seed) % nodeCount);
+                        String dest = "n" + ((k * 13 + seed * 3) % nodeCount);
+                        try {
+                            if (k % 97 == 0) {
+                                graph.removeNode(dest);
+                                graph.addNode(dest);
+                            } else {
+                                graph.addEdge(new DirectedLabeledEdge<>(src, dest, "l" + (k % 5)));
+                            }
+                        } catch (IllegalArgumentException e) {
+                            //another writer is removing one of the nodes at the same time
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    for (String node : graph.listNodes()) {
+                        for (DirectedLabeledEdge<String, String> edge : graph.listChildren(node)) {
+                            if (!edge.getSrc().equals(node)) {
+                                failed.set(true);
+                            }
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                //a node was removed between listNodes and listChildren
+            } catch (RuntimeException e) {
+                failed.set(true);
+            }
+        });
+        reader.start();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+        assertFalse(failed.get());
+        for (String node : graph.listNodes()) {
+            for (DirectedLabeledEdge<String, String> edge : graph.listChildren(node)) {
+                assertTrue(graph.containsNode(edge.getDest()));
+                assertTrue(graph.listParents(edge.getDest()).contains(edge));
+            }
+            for (DirectedLabeledEdge<String, String> edge : graph.listParents(node)) {
+                assertTrue(graph.listChildren(edge.getSrc()).contains(edge));
+            }
+        }
+    }
+
+    @Test(timeout = 20000) //removing and adding back the same node while other threads add edges to
+    // and from it leaves it either fully in the graph or fully out, with no edges left behind
+    public void testConcurrentRemoveAndReAddWithAddEdge() throws InterruptedException {
+        int nodeCount = 8;
+        String hot = "hot";
+        graph.addNode(hot);
+        for (int i = 0; i < nodeCount; i++) {
+            graph.addNode("n" + i);
+        }
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int k = 0; k < 20000; k++) {
+                        try {
+                            graph.removeNode(hot);
+                        } catch (IllegalArgumentException e) {
+                            //the other remover got there first
+                        }
+                        graph.addNode(hot);
+                    }
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                }
+            }));
+        }
+        for (int w = 0; w < 2; w++) {
+            int seed = w;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int k = 0; k < 40000; k++) {
+                        String other = "n" + ((k + seed) % nodeCount);
+                        boolean outward = (k % 2 == seed);
+                        try {
+                            graph.addEdge(new DirectedLabeledEdge<>(outward ? hot : other,
+                                    outward ? other : hot, "l" + (k % 3)));
+                        } catch (IllegalArgumentException e) {
+                            //hot is being removed at the same time
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed.get());
+        assertTrue(graph.containsNode(hot));
+        for (String node : graph.listNodes()) {
+            for (DirectedLabeledEdge<String, String> edge : graph.listChildren(node)) {
+                assertTrue(graph.containsNode(edge.getDest()));
+                assertTrue(graph.listParents(edge.getDest()).contains(edge));
+            }
+            for (DirectedLabeledEdge<String, String> edge : graph.listParents(node)) {
+                assertTrue(graph.containsNode(edge.getSrc()));
+                assertTrue(graph.listChildren(edge.getSrc()).contains(edge));
+            }
+        }
+        //hot can still be removed and added back, leaving no edge of it behind.
+        assertTrue(graph.removeNode(hot));
+        assertFalse(graph.containsNode(hot));
+        for (int i = 0; i < nodeCount; i++) {
+            for (DirectedLabeledEdge<String, String> edge : graph.listParents("n" + i)) {
+                assertNotEquals(hot, edge.getSrc());
+            }
+            for (DirectedLabeledEdge<String, String> edge : graph.listChildren("n" + i)) {
+                assertNotEquals(hot, edge.getDest());
+            }
+        }
+        assertTrue(graph.addNode(hot));
+        assertTrue(graph.listChildren(hot).isEmpty());
+        assertTrue(graph.listParents(hot).isEmpty());
+    }
+}
@@ -6,8 +6,13 @@ import org.junit.Before;
 import org.junit.Test;
 import graph.*;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -436,5 +441,294 @@ public class DirectedGraphTest {
         graph.removeEdge(edge1);
         assertTrue(graph.removeEdge(edge2));
     }
-}
 
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  parents
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //listing parents of a null node throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testListParentsNullChild() {
+        graph.listParents(null);
+    }
+
+    //listing parents of a node that doesn't exist throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testListParentsMissingChild() {
+        new DirectedGraph<String, String>(true).listParents(n1);
+    }
+
+    @Test //the parent of the child node of an edge is the edge, with or without the index
+    public void testListParentsOfEdgeChildNode() {
+        DirectedGraph<String, String> indexed = new DirectedGraph<>(true);
+        for (DirectedGraph<String, String> g : Arrays.asList(graph, indexed)) {
+            g.addNode(n1);
+            g.addNode(n2);
+            g.addEdge(e1);
+            assertTrue(g.listParents(n1).isEmpty());
+        }
+        edges.add(e1);
+        assertEquals(edges, graph.listParents(n2));
+        assertEquals(edges, indexed.listParents(n2));
+    }
+
+    @Test //removing an edge removes it from the parents of its child node
+    public void testListParentsAfterRemoveEdge() {
+        graph = new DirectedGraph<>(true);
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addEdge(e1);
+        graph.removeEdge(e1);
+        assertTrue(graph.listParents(n2).isEmpty());
+    }
+
+    @Test //removing a node removes all of its in-bound and out-bound edges, including self edges
+    public void testRemoveNodeRemovesIngoingEdges() {
+        String n3 = "n3";
+        DirectedGraph<String, String> indexed = new DirectedGraph<>(true);
+        for (DirectedGraph<String, String> g : Arrays.asList(graph, indexed)) {
+            g.addNode(n1);
+            g.addNode(n2);
+            g.addNode(n3);
+            g.addEdge(e1);
+            g.addEdge(new DirectedLabeledEdge<>(n3, n2, "label2"));
+            g.addEdge(new DirectedLabeledEdge<>(n3, n2, "label3"));
+            g.addEdge(new DirectedLabeledEdge<>(n2, n2, "label4"));
+            g.addEdge(new DirectedLabeledEdge<>(n2, n3, "label5"));
+            g.removeNode(n2);
+            assertTrue(g.listChildren(n1).isEmpty());
+            assertTrue(g.listChildren(n3).isEmpty());
+            assertTrue(g.listParents(n3).isEmpty());
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  snapshots
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    @Test //a snapshot has the nodes and edges of the graph when it was taken
+    public void testSnapshotContents() {
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addEdge(e1);
+        Graph<String, String> snapshot = graph.snapshot();
+        edges.add(e1);
+        nodes.add(n1);
+        nodes.add(n2);
+        assertEquals(nodes, snapshot.listNodes());
+        assertEquals(edges, snapshot.listChildren(n1));
+        assertEquals(edges, snapshot.listParents(n2));
+        assertTrue(snapshot.containsEdge(e1));
+    }
+
+    @Test //changes to the graph after a snapshot are not seen by the snapshot
+    public void testSnapshotDoesNotChange() {
+        for (DirectedGraph<String, String> g : Arrays.asList(graph, new DirectedGraph<String, String>(true))) {
+            g.addNode(n1);
+            g.addNode(n2);
+            g.addEdge(e1);
+            Graph<String, String> snapshot = g.snapshot();
+            Set<DirectedLabeledEdge<String, String>> children = snapshot.listChildren(n1);
+            DirectedLabeledEdge<String, String> e2 = new DirectedLabeledEdge<>(n1, n1, "label2");
+            g.addEdge(e2);
+            g.addNode("n3");
+            g.removeNode(n2);
+            assertEquals(1, children.size());
+            assertTrue(snapshot.containsEdge(e1));
+            assertFalse(snapshot.containsEdge(e2));
+            assertFalse(snapshot.containsNode("n3"));
+            assertEquals(1, snapshot.listParents(n2).size());
+            assertTrue(g.containsEdge(e2));
+            assertFalse(g.containsNode(n2));
+        }
+    }
+
+    @Test //taking two snapshots without changing the graph in between gives the same snapshot,
+    // and changing the graph in between gives a different one
+    public void testSnapshotVersions() {
+        graph.addNode(n1);
+        Graph<String, String> first = graph.snapshot();
+        assertSame(first, graph.snapshot());
+        graph.addNode(n2);
+        Graph<String, String> second = graph.snapshot();
+        assertNotSame(first, second);
+        assertEquals(1, first.listNodes().size());
+        assertEquals(2, second.listNodes().size());
+    }
+
+    @Test(timeout = 20000) //snapshots taken by one thread while another modifies the graph are
+    // consistent and never change.
+    public void testSnapshotWhileModifying() throws InterruptedException {
+        DirectedGraph<String, String> g = new DirectedGraph<>(true);
+        int nodeCount = 8;
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode("n" + i);
+        }
+        g.addNode("hot");
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int k = 0; k < 200000; k++) {
+                    DirectedLabeledEdge<String, String> e = new DirectedLabeledEdge<>("n" + (k % nodeCount),
+                            "n" + ((k * 3) % nodeCount), "l" + (k % 4));
+                    if (g.containsEdge(e)) {
+                        g.removeEdge(e);
+                    } else {
+                        g.addEdge(e);
+                    }
+                    if (k % 50 == 0) {
+                        g.removeNode("hot");
+                        g.addNode("hot");
+                        g.addEdge(new DirectedLabeledEdge<>("hot", "n" + (k % nodeCount), "h"));
+                        g.addEdge(new DirectedLabeledEdge<>("n" + (k % nodeCount), "hot", "h"));
+                    }
+                }
+            } catch (RuntimeException e) {
+                failed.set(true);
+            } finally {
+                done.set(true);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    GraphSnapshot<String, String> snapshot = g.snapshot();
+                    int edgeCount = walk(snapshot);
+                    if (walk(snapshot) != edgeCount) {
+                        failed.set(true);
+                    }
+                }
+            } catch (RuntimeException | AssertionError e) {
+                failed.set(true);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        assertFalse(failed.get());
+    }
+
+    //checks that every edge of snapshot runs between its nodes and is indexed by its dest, and
+    // returns the number of edges in it.
+    private static int walk(Graph<String, String> snapshot) {
+        int edgeCount = 0;
+        for (String node : snapshot.listNodes()) {
+            for (DirectedLabeledEdge<String, String> edge : snapshot.listChildren(node)) {
+                assertEquals(node, edge.getSrc());
+                assertTrue(snapshot.containsNode(edge.getDest()));
+                assertTrue(snapshot.listParents(edge.getDest()).contains(edge));
+                edgeCount++;
+            }
+        }
+        return edgeCount;
+    }
+
+    //a snapshot cannot be modified: GraphSnapshot only has the queries of Graph, so a call to
+    // snapshot().addNode does not compile.
+    @Test
+    public void testSnapshotIsImmutable() {
+        assertFalse(MutableGraph.class.isAssignableFrom(GraphSnapshot.class));
+        assertTrue(MutableGraph.class.isAssignableFrom(DirectedGraph.class));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  builder
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    @Test //a builder adds the nodes of its edges and drops duplicate nodes and edges
+    public void testBuilder() {
+        DirectedGraph<String, String> built = new DirectedGraph.Builder<String, String>()
+                .addNodes(Arrays.asList(n1, "n3", n1))
+                .addEdges(Arrays.asList(e1, new DirectedLabeledEdge<>(n1, n2, "label1")))
+                .build();
+        nodes.add(n1);
+        nodes.add(n2);
+        nodes.add("n3");
+        edges.add(e1);
+        assertEquals(nodes, built.listNodes());
+        assertEquals(edges, built.listChildren(n1));
+        assertTrue(built.listChildren(n2).isEmpty());
+    }
+
+    @Test //a builder can build a graph that indexes its in-bound edges
+    public void testBuilderIndexParents() {
+        DirectedGraph<String, String> built = new DirectedGraph.Builder<String, String>(2, true)
+                .addEdge(e1)
+                .build();
+        edges.add(e1);
+        assertEquals(edges, built.listParents(n2));
+        built.removeNode(n1);
+        assertTrue(built.listParents(n2).isEmpty());
+    }
+
+    //a builder cannot be used after it built its graph.
+    @Test(expected=IllegalStateException.class)
+    public void testBuilderBuildTwice() {
+        DirectedGraph.Builder<String, String> builder = new DirectedGraph.Builder<>();
+        builder.build();
+        builder.addNode(n1);
+    }
+
+    //adding a null edge to a builder throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuilderNullEdge() {
+        new DirectedGraph.Builder<String, String>().addEdge(null);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  sorted children
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    private final Comparator<DirectedLabeledEdge<String, String>> byLabel =
+            Comparator.comparing(DirectedLabeledEdge::getLabel);
+
+    @Test //a graph with a child order lists children in that order as edges are added
+    public void testSortedChildren() {
+        DirectedGraph<String, String> sorted = new DirectedGraph<>(false, byLabel);
+        assertEquals(byLabel, sorted.childOrder());
+        assertNull(graph.childOrder());
+        sorted.addNode(n1);
+        sorted.addNode(n2);
+        sorted.addEdge(new DirectedLabeledEdge<>(n1, n2, "c"));
+        sorted.addEdge(new DirectedLabeledEdge<>(n1, n1, "a"));
+        sorted.addEdge(new DirectedLabeledEdge<>(n1, n2, "b"));
+        assertEquals(Arrays.asList("a", "b", "c"), labels(sorted.listChildren(n1)));
+        assertTrue(sorted.containsEdge(new DirectedLabeledEdge<>(n1, n2, "b")));
+        sorted.removeEdge(new DirectedLabeledEdge<>(n1, n2, "b"));
+        assertEquals(Arrays.asList("a", "c"), labels(sorted.listChildren(n1)));
+    }
+
+    @Test //children stay sorted when a snapshot forces the graph to copy them
+    public void testSortedChildrenAfterSnapshot() {
+        DirectedGraph<String, String> sorted = new DirectedGraph<>(false, byLabel);
+        sorted.addNode(n1);
+        sorted.addEdge(new DirectedLabeledEdge<>(n1, n1, "b"));
+        GraphSnapshot<String, String> snapshot = sorted.snapshot();
+        sorted.addEdge(new DirectedLabeledEdge<>(n1, n1, "a"));
+        assertEquals(Arrays.asList("a", "b"), labels(sorted.listChildren(n1)));
+        assertEquals(Arrays.asList("b"), labels(snapshot.listChildren(n1)));
+        assertEquals(byLabel, snapshot.childOrder());
+    }
+
+    @Test //a builder sorts the children of each node when it builds the graph
+    public void testBuilderSortedChildren() {
+        DirectedGraph<String, String> built = new DirectedGraph.Builder<String, String>(2, false, byLabel)
+                .addEdge(new DirectedLabeledEdge<>(n1, n2, "c"))
+                .addEdge(new DirectedLabeledEdge<>(n1, n2, "a"))
+                .addEdge(new DirectedLabeledEdge<>(n1, n1, "b"))
+                .build();
+        assertEquals(byLabel, built.childOrder());
+        assertEquals(Arrays.asList("a", "b", "c"), labels(built.listChildren(n1)));
+    }
+
+    //returns the labels of edges in the order edges iterates them.
+    private static List<String> labels(Set<DirectedLabeledEdge<String, String>> edges) {
+        List<String> labels = new ArrayList<>();
+        for (DirectedLabeledEdge<String, String> edge : edges) {
+            labels.add(edge.getLabel());
+        }
+        return labels;
+    }
+}
@@ -103,6 +103,13 @@ public class DirectedLabeledEdgeTest {
         assertEquals(edge.hashCode(), edge2.hashCode());
     }
 
+    // reversing an edge changes its hashCode.
+    @Test
+    public void testHashCodeReversedEdge() {
+        DirectedLabeledEdge<String, String> edge2 =  new DirectedLabeledEdge<>("dest", "src", "label");
+        assertNotEquals(edge.hashCode(), edge2.hashCode());
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////
     //// toString
     ///////////////////////////////////////////////////////////////////////////////////////
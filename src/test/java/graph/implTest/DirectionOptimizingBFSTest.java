@@ -0,0 +1,83 @@
+package graph.implTest;
+import static org.junit.Assert.*;
+
+import graph.CompactGraph;
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import graph.DirectionOptimizingBFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * DirectionOptimizingBFS class.
+ * <p>
+ */
+
+public class DirectionOptimizingBFSTest {
+
+    private DirectedGraph<String, String> graph;
+
+    //adds an edge between a and b in both directions, adding a and b if they are not yet in graph.
+    private void connect(String a, String b, String label) {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(new DirectedLabeledEdge<>(a, b, label));
+        graph.addEdge(new DirectedLabeledEdge<>(b, a, label));
+    }
+
+    @Before
+    public void setUp() {
+        //a hub joined to every spoke, so the search goes bottom-up on the level of the spokes, and
+        // a tail of two nodes hanging off the last spoke.
+        graph = new DirectedGraph<>();
+        for (int i = 0; i < 50; i++) {
+            connect("hub", "s" + (10 + i), "h" + i);
+        }
+        connect("s59", "t1", "x");
+        connect("t1", "t2", "y");
+        connect("s10", "s11", "z");
+        graph.addNode("alone");
+    }
+
+    //searching a null graph throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullGraph() {
+        DirectionOptimizingBFS.findPath(null, "hub", "t2");
+    }
+
+    //searching from a node that is not in the graph throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testMissingStart() {
+        DirectionOptimizingBFS.findPath(CompactGraph.sorted(graph), "nobody", "t2");
+    }
+
+    @Test //distances are the same as those of a plain breadth-first search
+    public void testDistances() {
+        CompactGraph<String, String> compact = CompactGraph.sorted(graph);
+        int[] distance = DirectionOptimizingBFS.distances(compact, compact.idOf("s10"), -1);
+        assertEquals(0, distance[compact.idOf("s10")]);
+        assertEquals(1, distance[compact.idOf("hub")]);
+        assertEquals(1, distance[compact.idOf("s11")]);
+        assertEquals(2, distance[compact.idOf("s30")]);
+        assertEquals(4, distance[compact.idOf("t2")]);
+        assertEquals(-1, distance[compact.idOf("alone")]);
+    }
+
+    @Test //the path found is the one through the least nodes, with the least label on each hop
+    public void testFindPath() {
+        connect("s10", "t1", "w");
+        CompactGraph<String, String> compact = CompactGraph.sorted(graph);
+        List<DirectedLabeledEdge<String, String>> path = Arrays.asList(
+                new DirectedLabeledEdge<>("s11", "s10", "z"),
+                new DirectedLabeledEdge<>("s10", "t1", "w"),
+                new DirectedLabeledEdge<>("t1", "t2", "y"));
+        assertEquals(path, DirectionOptimizingBFS.findPath(compact, "s11", "t2"));
+        assertTrue(DirectionOptimizingBFS.findPath(compact, "hub", "hub").isEmpty());
+        assertNull(DirectionOptimizingBFS.findPath(compact, "hub", "alone"));
+    }
+}
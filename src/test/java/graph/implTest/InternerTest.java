@@ -0,0 +1,63 @@
+package graph.implTest;
+import static org.junit.Assert.*;
+
+import graph.Interner;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * Interner class.
+ * <p>
+ */
+
+public class InternerTest {
+
+    private Interner<String> interner;
+
+    @Before
+    public void setUp() {
+        interner = new Interner<>();
+    }
+
+    //interning a null value throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testInternNull() {
+        interner.intern(null);
+    }
+
+    //interning a collection containing null throws an IllegalArgumentException.
+    @Test(expected=IllegalArgumentException.class)
+    public void testSortedWithNull() {
+        Interner.sorted(Arrays.asList("b", null));
+    }
+
+    @Test //an empty interner has no values
+    public void testEmpty() {
+        assertEquals(0, interner.size());
+        assertEquals(-1, interner.idOf("a"));
+        assertEquals(-1, interner.idOf(null));
+    }
+
+    @Test //values are given dense ids in the order they are first interned
+    public void testIntern() {
+        assertEquals(0, interner.intern("b"));
+        assertEquals(1, interner.intern("a"));
+        assertEquals(0, interner.intern("b"));
+        assertEquals(2, interner.size());
+        assertEquals(1, interner.idOf("a"));
+        assertEquals("b", interner.valueOf(0));
+        assertEquals(Arrays.asList("b", "a"), interner.values());
+    }
+
+    @Test //a sorted interner gives ids in ascending order of the values and drops duplicates
+    public void testSorted() {
+        Interner<String> sorted = Interner.sorted(Arrays.asList("c", "a", "b", "a"));
+        assertEquals(3, sorted.size());
+        assertEquals(Arrays.asList("a", "b", "c"), sorted.values());
+        assertEquals(2, sorted.idOf("c"));
+    }
+}
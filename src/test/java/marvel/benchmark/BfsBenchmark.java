@@ -0,0 +1,124 @@
+package marvel.benchmark;
+
+import graph.CompactGraph;
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import graph.DirectionOptimizingBFS;
+import marvel.MarvelPaths;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * <b>BfsBenchmark</b> compares the breadth-first searches of MarvelPaths on the full marvel graph:
+ * findPath, the queue-based BFS over DirectedGraph, findPathCompact, the queue-based BFS over a
+ * CompactGraph, and findPathDirectionOptimizing. It times the same random character pairs with
+ * each, after checking they all find the same paths, and then times a search of the whole graph
+ * from each of a few characters with and without direction optimization.
+ *
+ * <p>Run it with the path of a marvel tsv file, or with no arguments to use
+ * src/main/resources/marvel/data/marvel.tsv.
+ */
+
+public class BfsBenchmark {
+
+    private static final int PAIRS = 500;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        String file = args.length > 0 ? args[0] : "src/main/resources/marvel/data/marvel.tsv";
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(file);
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(graph);
+        List<String> characters = new ArrayList<>(new TreeSet<>(graph.listNodes()));
+        Random random = new Random(331);
+        String[][] pairs = new String[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            pairs[i] = new String[] {characters.get(random.nextInt(characters.size())),
+                    characters.get(random.nextInt(characters.size()))};
+        }
+        for (String[] pair : pairs) {
+            List<DirectedLabeledEdge<String, String>> path = MarvelPaths.findPath(graph, pair[0], pair[1]);
+            if (!Objects.equals(path, MarvelPaths.findPathCompact(compact, pair[0], pair[1]))
+                    || !Objects.equals(path, MarvelPaths.findPathDirectionOptimizing(compact, pair[0], pair[1]))) {
+                throw new IllegalStateException("paths differ between " + pair[0] + " and " + pair[1]);
+            }
+        }
+        System.out.println(graph.listNodes().size() + " characters, " + compact.entryCount()
+                + " neighbor entries, " + PAIRS + " random pairs");
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String[] pair : pairs) {
+                MarvelPaths.findPath(graph, pair[0], pair[1]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        report("findPath", best);
+        best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String[] pair : pairs) {
+                MarvelPaths.findPathCompact(compact, pair[0], pair[1]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        report("findPathCompact", best);
+        best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String[] pair : pairs) {
+                MarvelPaths.findPathDirectionOptimizing(compact, pair[0], pair[1]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        report("findPathDirectionOptimizing", best);
+
+        //a full traversal, where every level is searched to the end, with and without switching.
+        long topDown = Long.MAX_VALUE;
+        long optimized = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                topDownDistances(compact, compact.idOf(pairs[i][0]));
+            }
+            topDown = Math.min(topDown, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                DirectionOptimizingBFS.distances(compact, compact.idOf(pairs[i][0]), -1);
+            }
+            optimized = Math.min(optimized, System.nanoTime() - start);
+        }
+        System.out.printf("whole graph from 20 characters: top-down %.1f ms, direction-optimizing %.1f ms%n",
+                topDown / 1e6, optimized / 1e6);
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("%s: %.1f ms, %.1f us/query%n", name, nanos / 1e6, nanos / 1e3 / PAIRS);
+    }
+
+    //the distance from source to every node, found with only top-down steps.
+    private static int[] topDownDistances(CompactGraph<String, String> graph, int source) {
+        int[] distance = new int[graph.nodeCount()];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[graph.nodeCount()];
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int child = graph.target(edge);
+                if (distance[child] == -1) {
+                    distance[child] = distance[node] + 1;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return distance;
+    }
+}
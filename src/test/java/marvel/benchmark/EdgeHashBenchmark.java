@@ -0,0 +1,161 @@
+package marvel.benchmark;
+
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import marvel.MarvelParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <b>EdgeHashBenchmark</b> measures what the hash code of DirectedLabeledEdge costs the full marvel
+ * graph. It compares the cached, mixed hash code of DirectedLabeledEdge with the old
+ * src*2 + dest*3 + label*5 hash code, which was computed again on every probe, by loading every
+ * edge of the marvel graph into per-node hash sets the way DirectedGraph stores them.
+ *
+ * <p>For each hash code it reports how many edges share a hash set bucket with an edge before them,
+ * the time to add every edge and the time to look every edge up. It then times addEdge and
+ * containsEdge on a DirectedGraph itself. Run it with the path of a marvel tsv file, or with no
+ * arguments to use src/main/resources/marvel/data/marvel.tsv.
+ */
+
+public class EdgeHashBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String file = args.length > 0 ? args[0] : "src/main/resources/marvel/data/marvel.tsv";
+        List<String[]> triples = edgesOf(MarvelParser.parseData(file));
+        System.out.println(triples.size() + " edges");
+
+        run("legacy hash", triples, t -> new LegacyEdge(t[0], t[1], t[2]));
+        run("cached mixed hash", triples, t -> new DirectedLabeledEdge<>(t[0], t[1], t[2]));
+
+        List<DirectedLabeledEdge<String, String>> edges = new ArrayList<>(triples.size());
+        for (String[] t : triples) {
+            edges.add(new DirectedLabeledEdge<>(t[0], t[1], t[2]));
+        }
+        long bestAdd = Long.MAX_VALUE;
+        long bestContains = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            DirectedGraph<String, String> graph = new DirectedGraph<>();
+            long start = System.nanoTime();
+            for (DirectedLabeledEdge<String, String> edge : edges) {
+                graph.addNode(edge.getSrc());
+                graph.addNode(edge.getDest());
+                graph.addEdge(edge);
+            }
+            bestAdd = Math.min(bestAdd, System.nanoTime() - start);
+            start = System.nanoTime();
+            int found = 0;
+            for (DirectedLabeledEdge<String, String> edge : edges) {
+                found += graph.containsEdge(edge) ? 1 : 0;
+            }
+            bestContains = Math.min(bestContains, System.nanoTime() - start);
+            check(found == edges.size());
+        }
+        System.out.printf("DirectedGraph: addEdge %.1f ns/edge, containsEdge %.1f ns/edge%n",
+                (double) bestAdd / edges.size(), (double) bestContains / edges.size());
+    }
+
+    //times loading and probing triples as keys made by key, in per-node hash sets.
+    private static void run(String name, List<String[]> triples, Function<String[], Object> key) {
+        List<Object> keys = new ArrayList<>(triples.size());
+        for (String[] t : triples) {
+            keys.add(key.apply(t));
+        }
+        long bestAdd = Long.MAX_VALUE;
+        long bestContains = Long.MAX_VALUE;
+        Map<String, Set<Object>> children = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            children = new HashMap<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < keys.size(); i++) {
+                children.computeIfAbsent(triples.get(i)[0], n -> new HashSet<>()).add(keys.get(i));
+            }
+            bestAdd = Math.min(bestAdd, System.nanoTime() - start);
+            start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                found += children.get(triples.get(i)[0]).contains(keys.get(i)) ? 1 : 0;
+            }
+            bestContains = Math.min(bestContains, System.nanoTime() - start);
+            check(found == keys.size());
+        }
+        long collisions = 0;
+        for (Set<Object> set : children.values()) {
+            collisions += collisions(set);
+        }
+        System.out.printf("%s: %d bucket collisions, add %.1f ns/edge, contains %.1f ns/edge%n", name,
+                collisions, (double) bestAdd / keys.size(), (double) bestContains / keys.size());
+    }
+
+    //counts the keys of set that land in a bucket of a HashSet table already used by another key,
+    // spreading hash codes the same way java.util.HashMap does.
+    private static int collisions(Set<Object> set) {
+        int tableSize = Integer.highestOneBit(Math.max(1, (int) (set.size() / 0.75f)) * 2 - 1);
+        Set<Integer> buckets = new HashSet<>();
+        int collisions = 0;
+        for (Object key : set) {
+            int h = key.hashCode();
+            if (!buckets.add((h ^ (h >>> 16)) & (tableSize - 1))) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
+
+    //returns (src, dest, book) for every distinct edge loadGraph builds from books.
+    private static List<String[]> edgesOf(Map<String, List<String>> books) {
+        Set<List<String>> seen = new HashSet<>();
+        List<String[]> triples = new ArrayList<>();
+        for (Map.Entry<String, List<String>> book : books.entrySet()) {
+            for (String src : book.getValue()) {
+                for (String dest : book.getValue()) {
+                    if (!src.equals(dest) && seen.add(List.of(src, dest, book.getKey()))) {
+                        triples.add(new String[] {src, dest, book.getKey()});
+                    }
+                }
+            }
+        }
+        return triples;
+    }
+
+    private static void check(boolean ok) {
+        if (!ok) {
+            throw new IllegalStateException("an edge that was added was not found");
+        }
+    }
+
+    //an edge with the hash code DirectedLabeledEdge had before it cached a mixed hash.
+    private static final class LegacyEdge {
+        private final String src;
+        private final String dest;
+        private final String label;
+
+        LegacyEdge(String src, String dest, String label) {
+            this.src = src;
+            this.dest = dest;
+            this.label = label;
+        }
+
+        @Override
+        public int hashCode() {
+            return (src.hashCode() * 2) + (dest.hashCode() * 3) + (label.hashCode() * 5);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof LegacyEdge)) {
+                return false;
+            }
+            LegacyEdge e = (LegacyEdge) obj;
+            return src.equals(e.src) && dest.equals(e.dest) && label.equals(e.label);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package marvel.implTest;
+
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import marvel.BookGraph;
+import marvel.MarvelPaths;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * BookGraph class.
+ * <p>
+ */
+
+public class BookGraphTest {
+
+    private static final int timeout1 = 10000;
+
+    //returns the path of edges (src, dest, label) given as triples.
+    private static List<DirectedLabeledEdge<String, String>> path(String... triples) {
+        List<DirectedLabeledEdge<String, String>> path = new ArrayList<>();
+        for (int i = 0; i < triples.length; i += 3) {
+            path.add(new DirectedLabeledEdge<>(triples[i], triples[i + 1], triples[i + 2]));
+        }
+        return path;
+    }
+
+    //building a graph from a null map throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNull() { BookGraph.build(null); }
+
+    //building a graph from a map with a null character throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNullCharacter() {
+        BookGraph.build(Collections.singletonMap("book1", Arrays.asList("hero1", null)));
+    }
+
+    //finding a path to a character not in the graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindPathMissingCharacter() {
+        MarvelPaths.loadBookGraph("src/test/resources/marvel/data/alphabetical.tsv").findPath("hero1", "Alexis");
+    }
+
+    @Test //a character listed twice in a book is linked to it once
+    public void testBuildRepeatedCharacter() {
+        Map<String, List<String>> books = new HashMap<>();
+        books.put("book2", Arrays.asList("hero2", "hero1", "hero2"));
+        books.put("book1", Arrays.asList("hero1"));
+        BookGraph graph = BookGraph.build(books);
+        assertEquals(2, graph.characterCount());
+        assertEquals(2, graph.bookCount());
+        assertEquals(3, graph.linkCount());
+        assertEquals(Arrays.asList("book1", "book2"), graph.booksOf("hero1"));
+        assertTrue(graph.containsCharacter("hero2"));
+        assertFalse(graph.containsCharacter("hero3"));
+    }
+
+    @Test //paths go through the first book two characters share, and may be empty or missing
+    public void testFindPath() {
+        Map<String, List<String>> books = new HashMap<>();
+        books.put("b", Arrays.asList("A", "B"));
+        books.put("a", Arrays.asList("B", "A"));
+        books.put("c", Arrays.asList("B", "C"));
+        books.put("d", Arrays.asList("D"));
+        BookGraph graph = BookGraph.build(books);
+        assertEquals(path("A", "B", "a", "B", "C", "c"), graph.findPath("A", "C"));
+        assertEquals(path(), graph.findPath("A", "A"));
+        assertNull(graph.findPath("A", "D"));
+    }
+
+    @Test (timeout = 4 * timeout1) //finds the same paths as findPath on the graph loadGraph builds
+    public void testMatchesFindPath() {
+        String file = "src/test/resources/marvel/data/smallerMarvel.tsv";
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(file);
+        BookGraph books = MarvelPaths.loadBookGraph(file);
+        assertEquals(graph.listNodes().size(), books.characterCount());
+        List<String> characters = new ArrayList<>(new TreeSet<>(graph.listNodes()));
+        Random random = new Random(333);
+        for (int i = 0; i < 100; i++) {
+            String start = characters.get(random.nextInt(characters.size()));
+            String dest = characters.get(random.nextInt(characters.size()));
+            assertEquals(start + " -> " + dest, MarvelPaths.findPath(graph, start, dest),
+                    books.findPath(start, dest));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package marvel.implTest;
+
+import graph.CompactGraph;
+import graph.DirectedGraph;
+import marvel.HopDistanceTable;
+import marvel.MarvelPaths;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * HopDistanceTable class.
+ * <p>
+ */
+
+public class HopDistanceTableTest {
+
+    private static final int timeout1 = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //returns the compact graph of the marvel test file with the given name.
+    private static CompactGraph<String, String> compact(String name) {
+        return MarvelPaths.compactGraph(MarvelPaths.loadGraph("src/test/resources/marvel/data/" + name));
+    }
+
+    //building a table from a null graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNullGraph() { HopDistanceTable.build(null); }
+
+    //building a table from a compact graph not built by compactGraph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildUnsortedGraph() {
+        HopDistanceTable.build(new CompactGraph<>(MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/staffSuperheroes.tsv")));
+    }
+
+    //asking for the distance to a character not in the graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceMissingCharacter() {
+        HopDistanceTable.build(compact("alphabetical.tsv")).distance("hero1", "Alexis");
+    }
+
+    @Test //distances count the edges of the shortest path, and -1 means there is none
+    public void testDistance() {
+        HopDistanceTable table = HopDistanceTable.build(compact("alphabetical.tsv"));
+        assertEquals(0, table.distance("hero1", "hero1"));
+        assertEquals(1, table.distance("hero1", "hero2"));
+        assertEquals(2, table.distance("hero1", "hero4"));
+        HopDistanceTable noEdges = HopDistanceTable.build(compact("noEdges.tsv"));
+        assertEquals(-1, noEdges.distance("hero1", "hero2"));
+        assertNull(noEdges.findPath("hero1", "hero2"));
+    }
+
+    @Test (timeout = 4 * timeout1) //a table finds the same paths and distances as findPath
+    public void testMatchesFindPath() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/smallerMarvel.tsv");
+        HopDistanceTable table = HopDistanceTable.build(MarvelPaths.compactGraph(graph));
+        List<String> characters = new ArrayList<>(new TreeSet<>(graph.listNodes()));
+        Random random = new Random(333);
+        for (int i = 0; i < 100; i++) {
+            String start = characters.get(random.nextInt(characters.size()));
+            String dest = characters.get(random.nextInt(characters.size()));
+            List<?> path = MarvelPaths.findPath(graph, start, dest);
+            assertEquals(path, table.findPath(start, dest));
+            assertEquals(path == null ? -1 : path.size(), table.distance(start, dest));
+        }
+    }
+
+    @Test //a saved table loads back with the same distances
+    public void testSaveAndLoad() throws IOException {
+        CompactGraph<String, String> graph = compact("staffSuperheroes.tsv");
+        HopDistanceTable table = HopDistanceTable.build(graph);
+        Path file = folder.newFile("staff.hops").toPath();
+        table.save(file);
+        HopDistanceTable loaded = HopDistanceTable.load(graph, file);
+        for (int a = 0; a < graph.nodeCount(); a++) {
+            for (int b = 0; b < graph.nodeCount(); b++) {
+                assertEquals(table.distance(graph.node(a), graph.node(b)),
+                        loaded.distance(graph.node(a), graph.node(b)));
+            }
+        }
+    }
+
+    //loading a table saved for another graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadOtherGraph() throws IOException {
+        Path file = folder.newFile("threeHeros.hops").toPath();
+        HopDistanceTable.build(compact("threeHerosTwoBooks.tsv")).save(file);
+        HopDistanceTable.load(compact("noEdges.tsv"), file);
+    }
+
+    @Test //loadOrBuild builds a missing or stale table, and loads it once it matches
+    public void testLoadOrBuild() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("table.hops");
+        HopDistanceTable.loadOrBuild(compact("noEdges.tsv"), file);
+        assertTrue(Files.exists(file));
+        CompactGraph<String, String> graph = compact("threeHerosTwoBooks.tsv");
+        HopDistanceTable built = HopDistanceTable.loadOrBuild(graph, file);
+        HopDistanceTable loaded = HopDistanceTable.loadOrBuild(graph, file);
+        assertEquals(built.distance("hero1", "hero3"), loaded.distance("hero1", "hero3"));
+    }
+
+    @Test //save creates the directory of its file, and loadOrBuild still returns the built table when
+    // the file cannot be written
+    public void testLoadOrBuildDirectories() throws IOException {
+        CompactGraph<String, String> graph = compact("threeHerosTwoBooks.tsv");
+        Path file = folder.getRoot().toPath().resolve("dir").resolve("table.hops");
+        HopDistanceTable.build(graph).save(file);
+        assertTrue(Files.exists(file));
+        Path unwritable = folder.newFile("blocker").toPath().resolve("table.hops");
+        HopDistanceTable built = HopDistanceTable.loadOrBuild(graph, unwritable);
+        assertFalse(Files.exists(unwritable));
+        assertEquals(1, built.distance("hero1", "hero2"));
+    }
+}
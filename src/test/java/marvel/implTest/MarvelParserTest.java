@@ -0,0 +1,80 @@
+package marvel.implTest;
+
+import marvel.MarvelParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * MarvelParser class.
+ * <p>
+ */
+
+public class MarvelParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //writes text to a new file in the temporary folder and returns its name.
+    private String write(String text) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    //parsing a null filename throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNullFilename() { MarvelParser.parseData(null); }
+
+    //parsing a file that doesn't exist throws an UncheckedIOException.
+    @Test(expected = UncheckedIOException.class)
+    public void testParseMissingFile() {
+        MarvelParser.parseData(folder.getRoot() + "/missing.tsv");
+    }
+
+    //a header without a book column throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseBadHeader() throws IOException {
+        MarvelParser.parseData(write("hero\tcomic\nhero1\tbook1\n"));
+    }
+
+    //a line with too few fields throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseShortLine() throws IOException {
+        MarvelParser.parseData(write("hero\tbook\nhero1\tbook1\nhero2\n"));
+    }
+
+    @Test //an empty file has no books
+    public void testParseEmptyFile() throws IOException {
+        assertTrue(MarvelParser.parseData(write("")).isEmpty());
+    }
+
+    @Test //leading whitespace and blank lines are skipped, and columns can come in any order
+    public void testParseWhitespace() throws IOException {
+        Map<String, List<String>> books = MarvelParser.parseData(
+                write("Book\t Hero\n book1\t hero1\n\nbook1\thero2\n  \nbook2\t hero1\n"));
+        assertEquals(2, books.size());
+        assertEquals(Arrays.asList("hero1", "hero2"), books.get("book1"));
+        assertEquals(Arrays.asList("hero1"), books.get("book2"));
+    }
+
+    @Test //each name is shared by every book it appears in
+    public void testParseInternsNames() throws IOException {
+        Map<String, List<String>> books = MarvelParser.parseData(
+                write("hero\tbook\nhero1\tbook1\nhero1\tbook2\n"));
+        assertSame(books.get("book1").get(0), books.get("book2").get(0));
+    }
+}
@@ -1,5 +1,6 @@
 package marvel.implTest;
 
+import graph.CompactGraph;
 import graph.DirectedGraph;
 import graph.DirectedLabeledEdge;
 import marvel.MarvelPaths;
@@ -7,10 +8,17 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.Rule;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static org.junit.Assert.*;
 import org.junit.rules.Timeout;
@@ -158,7 +166,269 @@ public class MarvelPathsTest {
 
     }
 
+    //tests findPath finds a long path, where each node is discovered once along a chain, and on a
+    // graph whose children are not already sorted.
+    @Test (timeout = timeout1)
+    public void testFindPathLongChain() {
+        DirectedGraph<String, String> chain = new DirectedGraph<>();
+        chain.addNode("n0");
+        for (int i = 1; i < 5000; i++) {
+            chain.addNode("n" + i);
+            chain.addEdge(new DirectedLabeledEdge<>("n" + (i - 1), "n" + i, "b" + i));
+        }
+        List<DirectedLabeledEdge<String, String>> chainPath = MarvelPaths.findPath(chain, "n0", "n4999");
+        assertEquals(4999, chainPath.size());
+        assertEquals(new DirectedLabeledEdge<>("n0", "n1", "b1"), chainPath.get(0));
+        assertEquals(new DirectedLabeledEdge<>("n4998", "n4999", "b4999"), chainPath.get(4998));
+        assertNull(MarvelPaths.findPath(chain, "n4999", "n0"));
+    }
 
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path compact
+    ///////////////////////////////////////////////////////////////////////////////////////
 
-}
+    //trying to find shortest path in a compact graph not built by compactGraph throws an
+    // IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompactWithUnsortedGraph() { MarvelPaths.findPathCompact(new CompactGraph<>(staff),
+            "Ernst-the-Bicycling-Wizard", "Notkin-of-the-Superhuman-Beard"); }
+
+    //trying to find shortest path in a compact graph from start to end when start is not in the
+    // graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompactWithNonExistingStart() { MarvelPaths.findPathCompact(
+            MarvelPaths.compactGraph(staff), "Alexis", "Notkin-of-the-Superhuman-Beard"); }
+
+    //tests findPathCompact finds the alphabetically first shortest path.
+    @Test (timeout = timeout1)
+    public void testFindPathCompact() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/alphabetical.tsv");
+        path.add(new DirectedLabeledEdge<>("hero1", "hero2", "book1"));
+        path.add(new DirectedLabeledEdge<>("hero2", "hero4", "book3"));
+
+        assertEquals(path, MarvelPaths.findPathCompact(MarvelPaths.compactGraph(graph), "hero1", "hero4"));
+    }
+
+    //tests findPathCompact finds the same paths as findPath on the marvel file.
+    @Test (timeout = timeout1)
+    public void testFindPathCompactMatchesFindPath() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/marvel.tsv");
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(graph);
+        String[][] pairs = {{"24-HOUR MAN/EMMANUEL", "SEERESS"}, {"CAPTAIN AMERICA", "ZZZAX"},
+                {"FROST, CARMILLA", "FROST, CARMILLA"}, {"SPIDER-MAN/PETER PAR", "3-D MAN/CHARLES CHAN"}, {"ABBOTT, JACK", "ACBA"}};
+        for (String[] pair : pairs) {
+            assertEquals(MarvelPaths.findPath(graph, pair[0], pair[1]),
+                    MarvelPaths.findPathCompact(compact, pair[0], pair[1]));
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path bidirectional
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //trying to find shortest path of null graph bidirectionally throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBidirectionalWithNullGraph() { MarvelPaths.findPathBidirectional(null,
+            "Ernst-the-Bicycling-Wizard", "Notkin-of-the-Superhuman-Beard"); }
+
+    //trying to find shortest path bidirectionally when dest is not in the graph throws an
+    // IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBidirectionalWithNonExistingDest() { MarvelPaths.findPathBidirectional(staff,
+            "Ernst-the-Bicycling-Wizard", "Alexis"); }
+
+    //tests findPathBidirectional finds the alphabetically first shortest path, no path between
+    // unconnected characters and the empty path from a character to themselves.
+    @Test (timeout = timeout1)
+    public void testFindPathBidirectional() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/alphabetical.tsv");
+        path.add(new DirectedLabeledEdge<>("hero1", "hero2", "book1"));
+        path.add(new DirectedLabeledEdge<>("hero2", "hero4", "book3"));
+        assertEquals(path, MarvelPaths.findPathBidirectional(graph, "hero1", "hero4"));
+        assertTrue(MarvelPaths.findPathBidirectional(graph, "hero1", "hero1").isEmpty());
+        DirectedGraph<String, String> noEdges = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/noEdges.tsv");
+        assertNull(MarvelPaths.findPathBidirectional(noEdges, "hero1", "hero2"));
+    }
+
+    //tests findPathBidirectional finds the same paths as findPath between random characters.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathBidirectionalMatchesFindPath() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/smallerMarvel.tsv");
+        List<String> characters = new ArrayList<>(new TreeSet<>(graph.listNodes()));
+        Random random = new Random(331);
+        for (int i = 0; i < 100; i++) {
+            String start = characters.get(random.nextInt(characters.size()));
+            String dest = characters.get(random.nextInt(characters.size()));
+            assertEquals(MarvelPaths.findPath(graph, start, dest),
+                    MarvelPaths.findPathBidirectional(graph, start, dest));
+        }
+        assertEquals(MarvelPaths.findPath(staff, "Ernst-the-Bicycling-Wizard", "Notkin-of-the-Superhuman-Beard"),
+                MarvelPaths.findPathBidirectional(staff, "Ernst-the-Bicycling-Wizard", "Notkin-of-the-Superhuman-Beard"));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path direction optimizing
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //trying to find shortest path with a direction-optimizing BFS in a compact graph not built by
+    // compactGraph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testDirectionOptimizingWithUnsortedGraph() { MarvelPaths.findPathDirectionOptimizing(
+            new CompactGraph<>(staff), "Ernst-the-Bicycling-Wizard", "Notkin-of-the-Superhuman-Beard"); }
+
+    //tests findPathDirectionOptimizing finds the same paths as findPath between random characters.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathDirectionOptimizingMatchesFindPath() {
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/smallerMarvel.tsv");
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(graph);
+        List<String> characters = new ArrayList<>(new TreeSet<>(graph.listNodes()));
+        Random random = new Random(332);
+        for (int i = 0; i < 100; i++) {
+            String start = characters.get(random.nextInt(characters.size()));
+            String dest = characters.get(random.nextInt(characters.size()));
+            assertEquals(MarvelPaths.findPath(graph, start, dest),
+                    MarvelPaths.findPathDirectionOptimizing(compact, start, dest));
+        }
+    }
+
+    //tests findPathsFrom with a dest not in the graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindPathsFromMissingDest() {
+        MarvelPaths.findPathsFrom(MarvelPaths.compactGraph(staff), "Ernst-the-Bicycling-Wizard",
+                Arrays.asList("Notkin-of-the-Superhuman-Beard", "Alexis"));
+    }
 
+    //tests findPathsFrom finds the same paths as findPathCompact from one character to many.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathsFromMatchesFindPathCompact() {
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/smallerMarvel.tsv"));
+        Random random = new Random(335);
+        for (int i = 0; i < 10; i++) {
+            String start = compact.node(random.nextInt(compact.nodeCount()));
+            List<String> dests = new ArrayList<>();
+            for (int k = 0; k < 20; k++) {
+                dests.add(compact.node(random.nextInt(compact.nodeCount())));
+            }
+            dests.add(start);
+            List<List<DirectedLabeledEdge<String, String>>> paths = MarvelPaths.findPathsFrom(compact, start, dests);
+            for (int k = 0; k < dests.size(); k++) {
+                assertEquals(MarvelPaths.findPathCompact(compact, start, dests.get(k)), paths.get(k));
+            }
+        }
+    }
+
+    //tests findPathsBatch answers a line that is not two tab-separated fields with "malformed query",
+    // and still answers the queries around it.
+    @Test (timeout = timeout1)
+    public void testFindPathsBatchMalformedLine() {
+        String input = "Ernst-the-Bicycling-Wizard\n"
+                + "Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\n"
+                + "Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MarvelPaths.findPathsBatch(MarvelPaths.compactGraph(staff), new BufferedReader(new StringReader(input)),
+                new PrintStream(output, true), 1);
+        assertEquals("malformed query\tline 1\n"
+                + "Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\t0\n"
+                + "malformed query\tline 3\n",
+                output.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    //tests findPathsBatch answers every query, in input order, whatever the number of threads.
+    @Test (timeout = timeout1)
+    public void testFindPathsBatch() {
+        String input = "Ernst-the-Bicycling-Wizard\tPerkins-the-Magical-Singing-Instructor\n"
+                + "Notkin-of-the-Superhuman-Beard\tAlexis\n"
+                + "\n"
+                + "Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\n"
+                + "Perkins-the-Magical-Singing-Instructor\tGrossman-the-Youngest-of-them-all\n";
+        String expected = "Ernst-the-Bicycling-Wizard\tPerkins-the-Magical-Singing-Instructor\t1\t"
+                + "Ernst-the-Bicycling-Wizard to Perkins-the-Magical-Singing-Instructor via CSE331\n"
+                + "Notkin-of-the-Superhuman-Beard\tAlexis\tunknown character\tAlexis\n"
+                + "Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\t0\n"
+                + "Perkins-the-Magical-Singing-Instructor\tGrossman-the-Youngest-of-them-all\t1\t"
+                + "Perkins-the-Magical-Singing-Instructor to Grossman-the-Youngest-of-them-all via CSE331\n";
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(staff);
+        for (int threads = 1; threads <= 3; threads++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            MarvelPaths.findPathsBatch(compact, new BufferedReader(new StringReader(input)),
+                    new PrintStream(output, true), threads);
+            assertEquals(expected, output.toString().replace(System.lineSeparator(), "\n"));
+        }
+    }
+
+    //tests findPathsBatch writes the results of more queries than fit in one block in input order.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathsBatchManyBlocks() {
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/alphabetical.tsv"));
+        StringBuilder input = new StringBuilder();
+        List<String> dests = new ArrayList<>();
+        Random random = new Random(336);
+        for (int i = 0; i < MarvelPaths.BATCH_SIZE + 10; i++) {
+            String start = compact.node(random.nextInt(compact.nodeCount()));
+            String dest = compact.node(random.nextInt(compact.nodeCount()));
+            input.append(start).append('\t').append(dest).append('\n');
+            dests.add(start + "\t" + dest);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MarvelPaths.findPathsBatch(compact, new BufferedReader(new StringReader(input.toString())),
+                new PrintStream(output, true), 2);
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(dests.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith(dests.get(i) + "\t"));
+        }
+    }
+
+    //tests findPathsBatch still writes a full block that has been answered when a malformed line follows
+    // it in the next block.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathsBatchMalformedLineAfterBlock() {
+        CompactGraph<String, String> compact = MarvelPaths.compactGraph(staff);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < MarvelPaths.BATCH_SIZE + 1; i++) {
+            input.append("Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\n");
+        }
+        input.append("Ernst-the-Bicycling-Wizard\n");
+        input.append("Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\n");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MarvelPaths.findPathsBatch(compact, new BufferedReader(new StringReader(input.toString())),
+                new PrintStream(output, true), 2);
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(MarvelPaths.BATCH_SIZE + 3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            if (i == MarvelPaths.BATCH_SIZE + 1) {
+                assertEquals("malformed query\tline " + (MarvelPaths.BATCH_SIZE + 2), lines[i]);
+            } else {
+                assertEquals("Ernst-the-Bicycling-Wizard\tErnst-the-Bicycling-Wizard\t0", lines[i]);
+            }
+        }
+    }
+
+    //tests findPathCompact gives the same paths when searches of graphs of different sizes alternate
+    // on one thread.
+    @Test (timeout = 4 * timeout1)
+    public void testFindPathCompactAlternatingGraphs() {
+        CompactGraph<String, String> small = MarvelPaths.compactGraph(staff);
+        DirectedGraph<String, String> graph = MarvelPaths.loadGraph(
+                "src/test/resources/marvel/data/smallerMarvel.tsv");
+        CompactGraph<String, String> large = MarvelPaths.compactGraph(graph);
+        List<DirectedLabeledEdge<String, String>> smallPath = MarvelPaths.findPath(staff,
+                "Ernst-the-Bicycling-Wizard", "Grossman-the-Youngest-of-them-all");
+        Random random = new Random(337);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(smallPath, MarvelPaths.findPathCompact(small, "Ernst-the-Bicycling-Wizard",
+                    "Grossman-the-Youngest-of-them-all"));
+            String start = large.node(random.nextInt(large.nodeCount()));
+            String dest = large.node(random.nextInt(large.nodeCount()));
+            assertEquals(MarvelPaths.findPath(graph, start, dest), MarvelPaths.findPathCompact(large, start, dest));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package marvel.implTest;
+
+import graph.CompactGraph;
+import marvel.MarvelPaths;
+import marvel.MarvelSnapshot;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * MarvelSnapshot class.
+ * <p>
+ */
+
+public class MarvelSnapshotTest {
+
+    private static final int timeout1 = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //copies the marvel test file with the given name into the temporary folder.
+    private Path copy(String name) throws IOException {
+        Path source = folder.getRoot().toPath().resolve(name);
+        Files.copy(Paths.get("src/test/resources/marvel/data/" + name), source);
+        return source;
+    }
+
+    //asserts that two compact graphs have the same nodes and entries, in the same order.
+    private static void assertSameGraph(CompactGraph<String, String> expected, CompactGraph<String, String> actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.entryCount(), actual.entryCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        assertTrue(actual.isSorted());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(expected.node(node), actual.node(node));
+            assertEquals(expected.endEdge(node), actual.endEdge(node));
+        }
+        for (int entry = 0; entry < expected.entryCount(); entry++) {
+            assertEquals(expected.target(entry), actual.target(entry));
+            assertEquals(expected.endLabel(entry), actual.endLabel(entry));
+        }
+        for (int index = 0; index < expected.edgeCount(); index++) {
+            assertEquals(expected.labelAt(index), actual.labelAt(index));
+        }
+    }
+
+    //saving an unsorted compact graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testSaveUnsortedGraph() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        MarvelSnapshot.save(new CompactGraph<>(MarvelPaths.loadGraph(source.toString())), source,
+                folder.getRoot().toPath().resolve("snapshot"));
+    }
+
+    //loading a file that is not a snapshot throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadNotSnapshot() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        MarvelSnapshot.load(source, source);
+    }
+
+    //loading a snapshot after its dataset has changed throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadStaleSnapshot() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+        MarvelSnapshot.save(MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString())), source, file);
+        Files.write(source, "hero\tbook\nhero1\tbook1\n".getBytes());
+        MarvelSnapshot.load(source, file);
+    }
+
+    //loading a damaged snapshot throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadDamagedSnapshot() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+        MarvelSnapshot.save(MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString())), source, file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        MarvelSnapshot.load(source, file);
+    }
+
+    @Test //a loaded snapshot holds the same graph that was saved
+    public void testSaveLoad() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+        CompactGraph<String, String> graph = MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString()));
+        MarvelSnapshot.save(graph, source, file);
+        assertSameGraph(graph, MarvelSnapshot.load(source, file));
+    }
+
+    @Test //loadOrBuild saves a snapshot the first time, and rebuilds it once the dataset changes
+    public void testLoadOrBuild() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        Path file = folder.getRoot().toPath().resolve("dir").resolve("snapshot");
+        CompactGraph<String, String> graph = MarvelSnapshot.loadOrBuild(source, file);
+        assertTrue(Files.exists(file));
+        assertSameGraph(graph, MarvelSnapshot.load(source, file));
+        Files.write(source, "hero\tbook\nhero1\tbook1\nhero2\tbook1\n".getBytes());
+        CompactGraph<String, String> rebuilt = MarvelSnapshot.loadOrBuild(source, file);
+        assertEquals(2, rebuilt.nodeCount());
+        assertSameGraph(rebuilt, MarvelSnapshot.load(source, file));
+    }
+
+    @Test //loadOrBuild still returns the built graph when the snapshot cannot be written, and rebuilds
+    // it when the snapshot cannot be read
+    public void testLoadOrBuildUnusableFile() throws IOException {
+        Path source = copy("staffSuperheroes.tsv");
+        CompactGraph<String, String> graph = MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString()));
+        Path unwritable = folder.newFile("blocker").toPath().resolve("snapshot");
+        assertSameGraph(graph, MarvelSnapshot.loadOrBuild(source, unwritable));
+        assertFalse(Files.exists(unwritable));
+        Path unreadable = folder.newFolder("snapshot").toPath();
+        assertSameGraph(graph, MarvelSnapshot.loadOrBuild(source, unreadable));
+    }
+
+    @Test (timeout = 4 * timeout1) //a loaded snapshot finds the same paths as the graph it was saved from
+    public void testMatchesFindPathCompact() throws IOException {
+        Path source = copy("smallerMarvel.tsv");
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+        CompactGraph<String, String> graph = MarvelPaths.compactGraph(MarvelPaths.loadGraph(source.toString()));
+        MarvelSnapshot.save(graph, source, file);
+        CompactGraph<String, String> loaded = MarvelSnapshot.load(source, file);
+        assertSameGraph(graph, loaded);
+        List<String> characters = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            characters.add(graph.node(node));
+        }
+        Random random = new Random(334);
+        for (int i = 0; i < 50; i++) {
+            String start = characters.get(random.nextInt(characters.size()));
+            String dest = characters.get(random.nextInt(characters.size()));
+            assertEquals(MarvelPaths.findPathCompact(graph, start, dest),
+                    MarvelPaths.findPathCompact(loaded, start, dest));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package pathfinder.implTest;
+
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import graph.WeightedGraph;
+import pathfinder.ContractionHierarchy;
+import pathfinder.Dijkstra;
+import pathfinder.ModelConnector;
+import pathfinder.RoutingEngine;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ContractionHierarchy class.
+ * <p>
+ */
+
+public class ContractionHierarchyTest {
+
+    private static final int timeout1 = 10000;
+
+    private static WeightedGraph<Point> campus;
+    private static ContractionHierarchy hierarchy;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        campus = new WeightedGraph<>(Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths()));
+        hierarchy = ContractionHierarchy.build(campus);
+    }
+
+    //asserts that the hierarchy finds a path of the same cost as findPathWeighted, and that the path
+    // is made of edges of the graph that run from start to dest.
+    private static void assertSameCost(WeightedGraph<Point> graph, ContractionHierarchy ch, Point start, Point dest) {
+        Path<Point> expected = Dijkstra.findPathWeighted(graph, start, dest);
+        Path<Point> actual = ch.findPath(start, dest, null);
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+        Point at = start;
+        for (Path<Point>.Segment segment : actual) {
+            assertEquals(at, segment.getStart());
+            at = segment.getEnd();
+        }
+        assertEquals(dest, at);
+    }
+
+    //building a hierarchy of a null graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNull() {
+        ContractionHierarchy.build(null);
+    }
+
+    //finding a path from a point not in the graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindPathMissingPoint() {
+        hierarchy.findPath(new Point(-1, -1), campus.node(0), null);
+    }
+
+    //a path from a point to itself is empty.
+    @Test
+    public void testFindPathSelf() {
+        Path<Point> path = hierarchy.findPath(campus.node(0), campus.node(0), null);
+        assertEquals(0.0, path.getCost(), 0.0);
+        assertFalse(path.iterator().hasNext());
+    }
+
+    //the hierarchy of a small graph finds the cheapest path, and null when there is none.
+    @Test
+    public void testSmallGraph() {
+        DirectedGraph<Point, Double> points = new DirectedGraph<>();
+        Point a = new Point(0, 0);
+        Point b = new Point(1, 0);
+        Point c = new Point(2, 0);
+        Point d = new Point(3, 0);
+        Point e = new Point(9, 9);
+        for (Point p : new Point[]{a, b, c, d, e}) {
+            points.addNode(p);
+        }
+        points.addEdge(new DirectedLabeledEdge<>(a, b, 1.0));
+        points.addEdge(new DirectedLabeledEdge<>(b, c, 1.0));
+        points.addEdge(new DirectedLabeledEdge<>(c, d, 1.0));
+        points.addEdge(new DirectedLabeledEdge<>(a, d, 5.0));
+        points.addEdge(new DirectedLabeledEdge<>(d, a, 2.0));
+        WeightedGraph<Point> graph = new WeightedGraph<>(points);
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        assertEquals(3.0, ch.findPath(a, d, null).getCost(), 0.0);
+        assertEquals(3.0, ch.findPath(c, a, null).getCost(), 0.0);
+        assertNull(ch.findPath(a, e, null));
+        assertNull(ch.findPath(e, a, null));
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            for (int j = 0; j < graph.nodeCount(); j++) {
+                assertSameCost(graph, ch, graph.node(i), graph.node(j));
+            }
+        }
+    }
+
+    //the hierarchy finds paths of the same cost as Dijkstra between random campus points, settling
+    // fewer points.
+    @Test(timeout = timeout1)
+    public void testCampusMatchesDijkstra() {
+        Random random = new Random(331);
+        SearchStats stats = new SearchStats();
+        for (int i = 0; i < 2000; i++) {
+            Point start = campus.node(random.nextInt(campus.nodeCount()));
+            Point dest = campus.node(random.nextInt(campus.nodeCount()));
+            assertSameCost(campus, hierarchy, start, dest);
+            hierarchy.findPath(start, dest, stats);
+        }
+        assertTrue(stats.settled() < 2000L * campus.nodeCount() / 10);
+    }
+
+    //a saved hierarchy loads back and answers queries the same way.
+    @Test(timeout = timeout1)
+    public void testSaveAndLoad() throws IOException {
+        java.nio.file.Path file = folder.getRoot().toPath().resolve("campus.ch");
+        hierarchy.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(campus, file);
+        assertEquals(hierarchy.shortcutCount(), loaded.shortcutCount());
+        Random random = new Random(332);
+        for (int i = 0; i < 200; i++) {
+            Point start = campus.node(random.nextInt(campus.nodeCount()));
+            Point dest = campus.node(random.nextInt(campus.nodeCount()));
+            assertEquals(hierarchy.findPath(start, dest, null).getCost(),
+                    loaded.findPath(start, dest, null).getCost(), 0.0);
+        }
+    }
+
+    //loading a hierarchy saved for another graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadOtherGraph() throws IOException {
+        java.nio.file.Path file = folder.getRoot().toPath().resolve("campus.ch");
+        hierarchy.save(file);
+        DirectedGraph<Point, Double> points = new DirectedGraph<>();
+        points.addNode(new Point(0, 0));
+        ContractionHierarchy.load(new WeightedGraph<>(points), file);
+    }
+
+    //loading a damaged hierarchy throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadDamaged() throws IOException {
+        java.nio.file.Path file = folder.getRoot().toPath().resolve("campus.ch");
+        hierarchy.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x5A;
+        Files.write(file, bytes);
+        ContractionHierarchy.load(campus, file);
+    }
+
+    //loadOrBuild rebuilds a damaged hierarchy and saves it over the damaged file.
+    @Test(timeout = timeout1)
+    public void testLoadOrBuildReplacesDamaged() throws IOException {
+        java.nio.file.Path file = folder.getRoot().toPath().resolve("campus.ch");
+        Files.write(file, new byte[]{1, 2, 3});
+        ContractionHierarchy rebuilt = ContractionHierarchy.loadOrBuild(campus, file);
+        assertEquals(hierarchy.shortcutCount(), rebuilt.shortcutCount());
+        assertEquals(hierarchy.shortcutCount(), ContractionHierarchy.load(campus, file).shortcutCount());
+    }
+
+    //loadOrBuild still returns the built hierarchy when the file cannot be written.
+    @Test(timeout = timeout1)
+    public void testLoadOrBuildUnwritableFile() throws IOException {
+        java.nio.file.Path blocker = folder.newFile("blocker").toPath();
+        java.nio.file.Path file = blocker.resolve("campus.ch");
+        ContractionHierarchy built = ContractionHierarchy.loadOrBuild(campus, file);
+        assertEquals(hierarchy.shortcutCount(), built.shortcutCount());
+        assertFalse(Files.exists(file));
+    }
+
+    //ModelConnector finds paths of the same cost between buildings with every engine.
+    @Test(timeout = timeout1)
+    public void testModelConnectorEngines() {
+        ModelConnector connector = new ModelConnector();
+        for (String start : connector.buildingNames().keySet()) {
+            for (String end : connector.buildingNames().keySet()) {
+                double cost = connector.findShortestPath(start, end).getCost();
+                for (RoutingEngine engine : RoutingEngine.values()) {
+                    assertEquals(cost, connector.findShortestPath(start, end, engine).getCost(), 1e-9);
+                }
+            }
+        }
+    }
+}
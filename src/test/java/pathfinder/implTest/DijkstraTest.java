@@ -2,10 +2,21 @@ package pathfinder.implTest;
 
 import graph.DirectedGraph;
 import graph.DirectedLabeledEdge;
+import graph.WeightedGraph;
 import pathfinder.Dijkstra;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
 
 
 /**
@@ -68,6 +79,185 @@ public class DijkstraTest {
     public void testDijkstraWithNonExistingEnd() { Dijkstra.findPath(graph,
             "B", "E"); }
 
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path weighted
+    ///////////////////////////////////////////////////////////////////////////////////////
 
-}
+    //trying to find min cost path in a weighted graph from start to end when start is not in the
+    // graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightedWithNonExistingStart() { Dijkstra.findPathWeighted(new WeightedGraph<>(graph),
+            "E", "B"); }
+
+    //trying to find min cost path in a weighted graph from start to end when end is not in the
+    // graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightedWithNonExistingEnd() { Dijkstra.findPathWeighted(new WeightedGraph<>(graph),
+            "B", "E"); }
 
+    //the weighted graph finds the same min cost path as the graph it was built from.
+    @Test
+    public void testWeightedMatchesFindPath() {
+        WeightedGraph<String> weighted = new WeightedGraph<>(graph);
+        assertEquals(Dijkstra.findPath(graph, "A", "C"), Dijkstra.findPathWeighted(weighted, "A", "C"));
+        assertEquals(0.0, Dijkstra.findPathWeighted(weighted, "C", "C").getCost(), 0.0);
+        assertNull(Dijkstra.findPathWeighted(weighted, "C", "A"));
+        assertNull(Dijkstra.findPathWeighted(weighted, "A", "D"));
+    }
+
+    //the weighted campus graph finds paths with the same cost as findPath between buildings.
+    @Test(timeout = 10000)
+    public void testWeightedMatchesFindPathOnCampus() {
+        DirectedGraph<Point, Double> campus = Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths());
+        WeightedGraph<Point> weighted = new WeightedGraph<>(campus);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings();
+        for (int i = 0; i < buildings.size(); i += 3) {
+            for (int j = 1; j < buildings.size(); j += 5) {
+                Point start = new Point(buildings.get(i).getX(), buildings.get(i).getY());
+                Point dest = new Point(buildings.get(j).getX(), buildings.get(j).getY());
+                assertEquals(Dijkstra.findPath(campus, start, dest).getCost(),
+                        Dijkstra.findPathWeighted(weighted, start, dest).getCost(), 1e-9);
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path A*
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //trying to find a path with A* with a negative scale throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testAStarWithNegativeScale() {
+        WeightedGraph<Point> weighted = new WeightedGraph<>(
+                Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths()));
+        Point point = weighted.node(0);
+        Dijkstra.findPathAStar(weighted, point, point, -1, null);
+    }
+
+    //the heuristic scale is the least cost per unit of straight-line distance over the edges.
+    @Test
+    public void testHeuristicScale() {
+        DirectedGraph<Point, Double> points = new DirectedGraph<>();
+        Point a = new Point(0, 0);
+        Point b = new Point(3, 4);
+        Point c = new Point(3, 0);
+        points.addNode(a);
+        points.addNode(b);
+        points.addNode(c);
+        assertEquals(0.0, Dijkstra.heuristicScale(new WeightedGraph<>(points)), 0.0);
+        points.addEdge(new DirectedLabeledEdge<>(a, b, 10.0));
+        points.addEdge(new DirectedLabeledEdge<>(a, c, 9.0));
+        assertEquals(2.0, Dijkstra.heuristicScale(new WeightedGraph<>(points)), 1e-6);
+        SearchStats stats = new SearchStats();
+        assertEquals(10.0, Dijkstra.findPathAStar(new WeightedGraph<>(points), a, b, 2.0, stats).getCost(), 0.0);
+        assertNull(Dijkstra.findPathAStar(new WeightedGraph<>(points), b, a, 2.0, stats));
+        assertTrue(stats.settled() > 0);
+    }
+
+    //A* finds paths with the same cost as findPathWeighted between buildings, settling fewer points.
+    @Test(timeout = 10000)
+    public void testAStarMatchesWeightedOnCampus() {
+        WeightedGraph<Point> weighted = new WeightedGraph<>(
+                Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths()));
+        double scale = Dijkstra.heuristicScale(weighted);
+        assertTrue(scale > 0);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings();
+        SearchStats dijkstra = new SearchStats();
+        SearchStats aStar = new SearchStats();
+        for (int i = 0; i < buildings.size(); i += 2) {
+            for (int j = 1; j < buildings.size(); j += 3) {
+                Point start = new Point(buildings.get(i).getX(), buildings.get(i).getY());
+                Point dest = new Point(buildings.get(j).getX(), buildings.get(j).getY());
+                assertEquals(Dijkstra.findPathWeighted(weighted, start, dest, dijkstra).getCost(),
+                        Dijkstra.findPathAStar(weighted, start, dest, scale, aStar).getCost(), 1e-9);
+            }
+        }
+        assertTrue(aStar.settled() < dijkstra.settled());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////
+    ////  find Path Bidirectional
+    ///////////////////////////////////////////////////////////////////////////////////////
+
+    //trying to find a bidirectional path from a null node throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBidirectionalNullStart() {
+        WeightedGraph<String> weighted = new WeightedGraph<>(graph);
+        Dijkstra.findPathBidirectional(weighted, null, "A", null);
+    }
+
+    //the bidirectional search finds paths of the same cost as findPath between random campus points,
+    // and the path runs from start to dest.
+    @Test(timeout = 10000)
+    public void testBidirectionalMatchesFindPathOnCampus() {
+        DirectedGraph<Point, Double> points = Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths());
+        WeightedGraph<Point> weighted = new WeightedGraph<>(points);
+        Random random = new Random(25);
+        for (int i = 0; i < 300; i++) {
+            Point start = weighted.node(random.nextInt(weighted.nodeCount()));
+            Point dest = weighted.node(random.nextInt(weighted.nodeCount()));
+            Path<Point> path = Dijkstra.findPathBidirectional(weighted, start, dest, null);
+            assertEquals(Dijkstra.findPath(points, start, dest).getCost(), path.getCost(), 1e-9);
+            Point at = start;
+            for (Path<Point>.Segment segment : path) {
+                assertEquals(at, segment.getStart());
+                at = segment.getEnd();
+            }
+            assertEquals(dest, at);
+        }
+    }
+
+    //the bidirectional search agrees with findPath on random symmetric graphs, some of them
+    // disconnected.
+    @Test(timeout = 10000)
+    public void testBidirectionalMatchesFindPathOnRandomGraphs() {
+        Random random = new Random(331);
+        for (int trial = 0; trial < 100; trial++) {
+            DirectedGraph<String, Double> symmetric = new DirectedGraph<>();
+            int nodes = 2 + random.nextInt(30);
+            for (int i = 0; i < nodes; i++) {
+                symmetric.addNode("n" + i);
+            }
+            int edges = random.nextInt(3 * nodes);
+            for (int i = 0; i < edges; i++) {
+                String a = "n" + random.nextInt(nodes);
+                String b = "n" + random.nextInt(nodes);
+                double cost = random.nextInt(20);
+                symmetric.addEdge(new DirectedLabeledEdge<>(a, b, cost));
+                symmetric.addEdge(new DirectedLabeledEdge<>(b, a, cost));
+            }
+            WeightedGraph<String> weighted = new WeightedGraph<>(symmetric);
+            for (int i = 0; i < nodes; i++) {
+                for (int j = 0; j < nodes; j++) {
+                    Path<String> expected = Dijkstra.findPath(symmetric, "n" + i, "n" + j);
+                    Path<String> actual = Dijkstra.findPathBidirectional(weighted, "n" + i, "n" + j, null);
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    //the bidirectional search settles fewer points than findPathWeighted between buildings.
+    @Test(timeout = 10000)
+    public void testBidirectionalSettlesFewer() {
+        WeightedGraph<Point> weighted = new WeightedGraph<>(
+                Dijkstra.loadGraph(CampusPathsParser.parseCampusPaths()));
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings();
+        SearchStats forward = new SearchStats();
+        SearchStats bidirectional = new SearchStats();
+        for (int i = 0; i < buildings.size(); i += 2) {
+            for (int j = 1; j < buildings.size(); j += 3) {
+                Point start = new Point(buildings.get(i).getX(), buildings.get(i).getY());
+                Point dest = new Point(buildings.get(j).getX(), buildings.get(j).getY());
+                Dijkstra.findPathWeighted(weighted, start, dest, forward);
+                Dijkstra.findPathBidirectional(weighted, start, dest, bidirectional);
+            }
+        }
+        assertTrue(bidirectional.settled() < forward.settled());
+    }
+
+}
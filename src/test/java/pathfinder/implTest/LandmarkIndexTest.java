@@ -0,0 +1,155 @@
+package pathfinder.implTest;
+
+import graph.DirectedGraph;
+import graph.DirectedLabeledEdge;
+import graph.WeightedGraph;
+import pathfinder.Dijkstra;
+import pathfinder.LandmarkIndex;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * LandmarkIndex class.
+ * <p>
+ */
+
+public class LandmarkIndexTest {
+
+    private static final int timeout1 = 10000;
+
+    private static List<CampusPath> paths;
+    private static WeightedGraph<Point> campus;
+    private static List<Point> buildings;
+    private static LandmarkIndex index;
+
+    @BeforeClass
+    public static void setUpClass() {
+        paths = CampusPathsParser.parseCampusPaths();
+        campus = new WeightedGraph<>(Dijkstra.loadGraph(paths));
+        buildings = new ArrayList<>();
+        for (CampusBuilding building : CampusPathsParser.parseCampusBuildings()) {
+            buildings.add(new Point(building.getX(), building.getY()));
+        }
+        index = LandmarkIndex.build(campus, buildings, 8);
+    }
+
+    //building an index with no landmarks throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNoLandmarks() {
+        LandmarkIndex.build(campus, buildings, 0);
+    }
+
+    //building an index with no candidate in the graph throws an IllegalArgumentException.
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNoCandidateInGraph() {
+        List<Point> candidates = new ArrayList<>();
+        candidates.add(new Point(-1, -1));
+        LandmarkIndex.build(campus, candidates, 4);
+    }
+
+    //the landmarks are distinct buildings, and there are no more of them than distinct candidates.
+    @Test
+    public void testLandmarks() {
+        assertEquals(8, index.landmarks().size());
+        assertEquals(8, new HashSet<>(index.landmarks()).size());
+        assertTrue(buildings.containsAll(index.landmarks()));
+        List<Point> twice = new ArrayList<>();
+        twice.add(buildings.get(0));
+        twice.add(buildings.get(0));
+        twice.add(buildings.get(1));
+        assertEquals(2, LandmarkIndex.build(campus, twice, 8).landmarks().size());
+    }
+
+    //the bound never exceeds the cost of the cheapest path.
+    @Test(timeout = timeout1)
+    public void testLowerBound() {
+        Random random = new Random(24);
+        for (int i = 0; i < 500; i++) {
+            Point start = campus.node(random.nextInt(campus.nodeCount()));
+            Point dest = campus.node(random.nextInt(campus.nodeCount()));
+            double cost = Dijkstra.findPathWeighted(campus, start, dest).getCost();
+            assertTrue(index.lowerBound(start, dest) <= cost + 1e-9);
+        }
+        assertEquals(0.0, index.lowerBound(buildings.get(0), buildings.get(0)), 0.0);
+    }
+
+    //the index finds paths of the same cost as findPath between buildings, settling fewer points.
+    @Test(timeout = timeout1)
+    public void testCampusMatchesDijkstra() {
+        DirectedGraph<Point, Double> graph = Dijkstra.loadGraph(paths);
+        SearchStats dijkstra = new SearchStats();
+        SearchStats alt = new SearchStats();
+        for (int i = 0; i < buildings.size(); i += 2) {
+            for (int j = 1; j < buildings.size(); j += 3) {
+                Point start = buildings.get(i);
+                Point dest = buildings.get(j);
+                assertEquals(Dijkstra.findPath(graph, start, dest).getCost(),
+                        index.findPath(start, dest, alt).getCost(), 1e-9);
+                Dijkstra.findPathWeighted(campus, start, dest, dijkstra);
+            }
+        }
+        assertTrue(alt.settled() * 4 < dijkstra.settled());
+    }
+
+    //the index still finds the cheapest paths once some paths get more expensive, but not once a
+    // path gets much cheaper.
+    @Test(timeout = timeout1)
+    public void testChangedCosts() {
+        List<CampusPath> slower = new ArrayList<>();
+        Random random = new Random(25);
+        for (CampusPath path : paths) {
+            double factor = (random.nextInt(4) == 0) ? 3 : 1;
+            slower.add(new CampusPath(path.getX1(), path.getY1(), path.getX2(), path.getY2(),
+                    path.getDistance() * factor));
+        }
+        WeightedGraph<Point> changed = new WeightedGraph<>(Dijkstra.loadGraph(slower));
+        assertTrue(index.admits(campus));
+        assertTrue(index.admits(changed));
+        for (int i = 0; i < buildings.size(); i += 3) {
+            for (int j = 1; j < buildings.size(); j += 2) {
+                Path<Point> expected = Dijkstra.findPathWeighted(changed, buildings.get(i), buildings.get(j));
+                Path<Point> actual = index.findPath(changed, buildings.get(i), buildings.get(j), null);
+                assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+            }
+        }
+        List<CampusPath> faster = new ArrayList<>(paths);
+        CampusPath path = faster.get(0);
+        faster.set(0, new CampusPath(path.getX1(), path.getY1(), path.getX2(), path.getY2(), 0));
+        assertFalse(index.admits(new WeightedGraph<>(Dijkstra.loadGraph(faster))));
+    }
+
+    //a point with no path to dest is bounded as unreachable, and findPath returns null.
+    @Test
+    public void testUnreachable() {
+        DirectedGraph<Point, Double> points = new DirectedGraph<>();
+        Point a = new Point(0, 0);
+        Point b = new Point(1, 0);
+        Point c = new Point(5, 5);
+        points.addNode(a);
+        points.addNode(b);
+        points.addNode(c);
+        points.addEdge(new DirectedLabeledEdge<>(a, b, 2.0));
+        List<Point> candidates = new ArrayList<>();
+        candidates.add(b);
+        LandmarkIndex small = LandmarkIndex.build(new WeightedGraph<>(points), candidates, 2);
+        assertEquals(2.0, small.findPath(a, b, null).getCost(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, small.lowerBound(b, a), 0.0);
+        assertNull(small.findPath(b, a, null));
+        assertNull(small.findPath(c, b, null));
+    }
+}
@@ -0,0 +1,116 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedMinHeap {
+
+  private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    new IndexedMinHeap(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNaNKey() {
+    new IndexedMinHeap(1).insertOrDecrease(0, Double.NaN);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRemoveMinEmpty() {
+    new IndexedMinHeap(1).removeMin();
+  }
+
+  @Test
+  public void testRemovesInKeyOrder() {
+    IndexedMinHeap heap = new IndexedMinHeap(5);
+    heap.insertOrDecrease(3, 4.0D);
+    heap.insertOrDecrease(1, 2.0D);
+    heap.insertOrDecrease(4, 1.0D);
+    heap.insertOrDecrease(0, 3.0D);
+    assertEquals(4, heap.size());
+    assertEquals(1.0D, heap.minKey(), EPSILON);
+    assertEquals(4, heap.removeMin());
+    assertEquals(1, heap.removeMin());
+    assertEquals(0, heap.removeMin());
+    assertEquals(3, heap.removeMin());
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void testDecreaseKey() {
+    IndexedMinHeap heap = new IndexedMinHeap(3);
+    assertTrue(heap.insertOrDecrease(0, 1.0D));
+    assertTrue(heap.insertOrDecrease(1, 5.0D));
+    assertFalse(heap.insertOrDecrease(1, 6.0D));
+    assertTrue(heap.insertOrDecrease(1, 0.5D));
+    assertEquals(2, heap.size());
+    assertEquals(0.5D, heap.key(1), EPSILON);
+    assertEquals(1, heap.removeMin());
+    assertFalse(heap.contains(1));
+    assertTrue(heap.contains(0));
+  }
+
+  @Test
+  public void testEqualKeysRemoveSmallerIdFirst() {
+    IndexedMinHeap heap = new IndexedMinHeap(3);
+    heap.insertOrDecrease(2, 1.0D);
+    heap.insertOrDecrease(0, 1.0D);
+    heap.insertOrDecrease(1, 1.0D);
+    assertEquals(0, heap.removeMin());
+    assertEquals(1, heap.removeMin());
+    assertEquals(2, heap.removeMin());
+  }
+
+  @Test
+  public void testGrowsAndClears() {
+    IndexedMinHeap heap = new IndexedMinHeap(0);
+    for (int id = 99; id >= 0; id--) {
+      heap.insertOrDecrease(id, id);
+    }
+    assertEquals(100, heap.size());
+    heap.clear();
+    assertTrue(heap.isEmpty());
+    assertFalse(heap.contains(50));
+    heap.insertOrDecrease(50, 1.0D);
+    assertEquals(50, heap.removeMin());
+  }
+
+  @Test
+  public void testMatchesPriorityQueue() {
+    Random random = new Random(331);
+    IndexedMinHeap heap = new IndexedMinHeap(64);
+    double[] keys = new double[64];
+    PriorityQueue<Integer> expected = new PriorityQueue<>((a, b) -> keys[a] != keys[b]
+        ? Double.compare(keys[a], keys[b]) : Integer.compare(a, b));
+    List<Integer> removed = new ArrayList<>();
+    List<Integer> expectedRemoved = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+        expectedRemoved.add(expected.remove());
+        removed.add(heap.removeMin());
+      } else {
+        int id = random.nextInt(64);
+        double key = random.nextInt(1000);
+        if (!expected.contains(id) || key < keys[id]) {
+          expected.remove(id);
+          keys[id] = key;
+          expected.add(id);
+        }
+        heap.insertOrDecrease(id, key);
+      }
+      assertEquals(expected.size(), heap.size());
+    }
+    assertEquals(expectedRemoved, removed);
+  }
+}